@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.gshell.util.cli2.Argument;
+import org.sonatype.gshell.util.cli2.CliProcessor;
+import org.sonatype.gshell.util.cli2.Option;
+import org.sonatype.gshell.util.setter.SetterFactory;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link CliProcessor#process}, including binding a new bean as each command invocation does.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CliProcessorBenchmark
+{
+    public static class Bean
+    {
+        @Option(name = "h", longName = "help", override = true)
+        private boolean help;
+
+        @Option(name = "n")
+        private boolean noNewline;
+
+        @Option(name = "c", longName = "count")
+        private int count;
+
+        @Option(name = "f", longName = "file")
+        private File file;
+
+        @Option(name = "D", longName = "define")
+        private List<String> defines;
+
+        @Argument
+        private List<String> args;
+    }
+
+    private static final String[] ARGS = {
+        "-n", "--count", "3", "-f", "target/file.txt", "-D", "a=b", "-D", "c=d", "one", "two", "three"
+    };
+
+    /**
+     * Setter backend, see {@link SetterFactory#TYPE}.
+     */
+    @Param({ "CACHED", "REFLECTIVE" })
+    public SetterFactory.Type setters;
+
+    @Setup
+    public void setUp() {
+        SetterFactory.setType(setters);
+    }
+
+    @Benchmark
+    public Object process() throws Exception {
+        Bean bean = new Bean();
+        CliProcessor clp = new CliProcessor();
+        clp.addBean(bean);
+        clp.process(ARGS.clone());
+        return bean;
+    }
+}
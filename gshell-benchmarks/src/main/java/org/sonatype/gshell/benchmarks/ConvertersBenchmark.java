@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.gshell.util.converter.Converters;
+
+import java.io.File;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Converters#getValue} for some of the types commonly used by command options.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertersBenchmark
+{
+    @Benchmark
+    public Object toInteger() throws Exception {
+        return Converters.getValue(Integer.class, "42");
+    }
+
+    @Benchmark
+    public Object toPrimitiveBoolean() throws Exception {
+        return Converters.getValue(boolean.class, "true");
+    }
+
+    @Benchmark
+    public Object toFile() throws Exception {
+        return Converters.getValue(File.class, "target/file.txt");
+    }
+
+    @Benchmark
+    public Object toUrl() throws Exception {
+        return Converters.getValue(URL.class, "http://localhost:8080/path");
+    }
+
+    @Benchmark
+    public Object toStringArray() throws Exception {
+        return Converters.getValue(String[].class, "a,b,c");
+    }
+}
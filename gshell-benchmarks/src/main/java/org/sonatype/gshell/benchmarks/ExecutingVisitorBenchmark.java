@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.parser.impl.ASTCommandLine;
+import org.sonatype.gshell.parser.impl.Parser;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan;
+import org.sonatype.gshell.parser.impl.visitor.CompilingVisitor;
+import org.sonatype.gshell.parser.impl.visitor.ExecutingVisitor;
+import org.sonatype.gshell.shell.Shell;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks argument assembly, walking the parse tree with {@link ExecutingVisitor} compared to executing a
+ * compiled {@link ExecutionPlan}.  Commands are not executed; the executor only returns the assembled arguments.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutingVisitorBenchmark
+{
+    @Param({
+        "echo hello world",
+        "echo \"hello ${user.name}\" 'and ${user.home}' a${file.separator}c"
+    })
+    public String line;
+
+    private ASTCommandLine root;
+
+    private ExecutionPlan plan;
+
+    private Shell shell;
+
+    private CommandExecutor executor;
+
+    @Setup
+    public void setUp(final ShellState state) throws Exception {
+        root = new Parser().parse(new StringReader(line));
+        plan = new CompilingVisitor().compile(root);
+        shell = state.shell;
+
+        executor = new CommandExecutor()
+        {
+            public Object execute(final Shell shell, final String line) throws Exception {
+                throw new UnsupportedOperationException();
+            }
+
+            public Object execute(final Shell shell, final String command, final Object[] args) throws Exception {
+                return args;
+            }
+
+            public Object execute(final Shell shell, final Object... args) throws Exception {
+                return args;
+            }
+        };
+    }
+
+    @Benchmark
+    public Object visit() throws Exception {
+        return root.jjtAccept(new ExecutingVisitor(shell, executor), null);
+    }
+
+    @Benchmark
+    public Object compiled() throws Exception {
+        return plan.execute(shell, executor);
+    }
+}
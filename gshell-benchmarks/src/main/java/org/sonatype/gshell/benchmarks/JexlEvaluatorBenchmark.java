@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.gshell.parser.impl.eval.ExpressionCache;
+import org.sonatype.gshell.parser.impl.eval.JexlEvaluator;
+import org.sonatype.gshell.variables.Variables;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.sonatype.gshell.variables.VariableNames.SHELL_EVAL_CACHE_SIZE;
+
+/**
+ * Benchmarks {@link JexlEvaluator#eval}, with and without the compiled expression cache.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JexlEvaluatorBenchmark
+{
+    @Param({ "${name}", "${count + 1} of ${name}", "${items.size() > 2 ? name : count}" })
+    public String expression;
+
+    @Param({ "" + ExpressionCache.DEFAULT_SIZE, "0" })
+    public int cacheSize;
+
+    private JexlEvaluator evaluator;
+
+    @Setup
+    public void setUp(final ShellState state) {
+        Variables vars = state.shell.getVariables();
+        vars.set("name", "bench");
+        vars.set("count", 41);
+        vars.set("items", Arrays.asList(1, 2, 3));
+        vars.set(SHELL_EVAL_CACHE_SIZE, cacheSize);
+
+        evaluator = new JexlEvaluator();
+    }
+
+    @Benchmark
+    public Object eval() throws Exception {
+        return evaluator.eval(expression);
+    }
+}
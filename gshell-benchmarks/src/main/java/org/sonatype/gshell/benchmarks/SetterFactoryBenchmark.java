@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.gshell.util.setter.SetterFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks binding a {@link SetterFactory.Accessor} to a new bean and setting a value, as each command invocation
+ * does for each of its options and arguments.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetterFactoryBenchmark
+{
+    public static class Bean
+    {
+        private String name;
+
+        private List<String> values;
+
+        private int size;
+
+        private void setSize(final int size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * Setter backend, see {@link SetterFactory#TYPE}.
+     */
+    @Param({ "CACHED", "REFLECTIVE" })
+    public SetterFactory.Type setters;
+
+    private SetterFactory.Accessor field;
+
+    private SetterFactory.Accessor collection;
+
+    private SetterFactory.Accessor method;
+
+    @Setup
+    public void setUp() throws Exception {
+        SetterFactory.setType(setters);
+
+        Field name = Bean.class.getDeclaredField("name");
+        Field values = Bean.class.getDeclaredField("values");
+        Method setSize = Bean.class.getDeclaredMethod("setSize", int.class);
+
+        field = SetterFactory.accessor(name);
+        collection = SetterFactory.accessor(values);
+        method = SetterFactory.accessor(setSize);
+    }
+
+    @Benchmark
+    public Object setField() {
+        Bean bean = new Bean();
+        field.bind(bean).set("a");
+        return bean;
+    }
+
+    @Benchmark
+    public Object setCollectionField() {
+        Bean bean = new Bean();
+        collection.bind(bean).set("a");
+        return bean;
+    }
+
+    @Benchmark
+    public Object setMethod() {
+        Bean bean = new Bean();
+        method.bind(bean).set(1);
+        return bean;
+    }
+}
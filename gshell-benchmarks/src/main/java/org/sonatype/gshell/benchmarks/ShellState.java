@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import org.fusesource.jansi.Ansi;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.sonatype.gshell.branding.Branding;
+import org.sonatype.gshell.branding.TestBranding;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.command.registry.CommandRegistrar;
+import org.sonatype.gshell.command.support.TestIO;
+import org.sonatype.gshell.command.support.TestLoggingSystem;
+import org.sonatype.gshell.commands.standard.EchoCommand;
+import org.sonatype.gshell.console.ConsoleErrorHandler;
+import org.sonatype.gshell.console.ConsolePrompt;
+import org.sonatype.gshell.guice.CoreModule;
+import org.sonatype.gshell.logging.LoggingSystem;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.shell.ShellErrorHandler;
+import org.sonatype.gshell.shell.ShellHolder;
+import org.sonatype.gshell.shell.ShellImpl;
+import org.sonatype.gshell.shell.ShellPrompt;
+import org.sonatype.gshell.variables.Variables;
+import org.sonatype.gshell.variables.VariablesImpl;
+import org.sonatype.guice.bean.binders.SpaceModule;
+import org.sonatype.guice.bean.binders.WireModule;
+import org.sonatype.guice.bean.locators.DefaultBeanLocator;
+import org.sonatype.guice.bean.locators.MutableBeanLocator;
+import org.sonatype.guice.bean.reflect.URLClassSpace;
+import org.sonatype.inject.BeanScanning;
+
+import java.io.File;
+
+import static com.google.inject.name.Names.named;
+
+/**
+ * A fully wired shell, set up the same way as for command tests, with <tt>echo</tt> registered.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@State(Scope.Benchmark)
+public class ShellState
+{
+    public static final String ECHO = "echo";
+
+    /**
+     * A command nested a few groups down, to exercise path resolution.
+     */
+    public static final String NESTED_ECHO = "bench/nested/echo";
+
+    public Injector injector;
+
+    public Shell shell;
+
+    public TestIO io;
+
+    private DefaultBeanLocator container;
+
+    private Shell lastShell;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        container = new DefaultBeanLocator();
+        io = new TestIO();
+
+        Module boot = new AbstractModule()
+        {
+            @Override
+            protected void configure() {
+                bind(MutableBeanLocator.class).toInstance(container);
+                bind(LoggingSystem.class).to(TestLoggingSystem.class);
+                bind(ConsolePrompt.class).to(ShellPrompt.class);
+                bind(ConsoleErrorHandler.class).to(ShellErrorHandler.class);
+                bind(Branding.class).toInstance(new TestBranding(new File("target/shell-home")));
+                bind(IO.class).annotatedWith(named("main")).toInstance(io);
+                bind(Variables.class).annotatedWith(named("main")).toInstance(new VariablesImpl());
+            }
+        };
+
+        SpaceModule space = new SpaceModule(new URLClassSpace(getClass().getClassLoader()), BeanScanning.INDEX);
+        injector = Guice.createInjector(Stage.DEVELOPMENT, new WireModule(boot, space, new CoreModule()));
+        container.add(injector, 0);
+
+        CommandRegistrar registrar = injector.getInstance(CommandRegistrar.class);
+        registrar.registerCommand(ECHO, EchoCommand.class.getName());
+        registrar.registerCommand(NESTED_ECHO, EchoCommand.class.getName());
+
+        shell = injector.getInstance(ShellImpl.class);
+        lastShell = ShellHolder.set(shell);
+
+        Ansi.setEnabled(false);
+    }
+
+    /**
+     * Output is captured in memory; drop it so it does not grow for the whole trial.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        io.getOutput().reset();
+        io.getError().reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ShellHolder.set(lastShell);
+        shell.close();
+        container.clear();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.gshell.util.io.StreamJack;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks printing through the {@link StreamJack} hijacked {@link System#out} against printing to the registered
+ * {@link PrintStream} directly.
+ * <p/>
+ * Runs with several threads, each with its own registered stream, as commands in a pipeline do.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class StreamJackBenchmark
+{
+    private static final String LINE = "Processed 42 of 100 items";
+
+    private PrintStream direct;
+
+    private PrintStream hijacked;
+
+    @Setup
+    public void setUp() {
+        direct = new PrintStream(new OutputStream()
+        {
+            @Override
+            public void write(final int b) {
+                // discard
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                // discard
+            }
+        });
+
+        StreamJack.maybeInstall();
+        StreamJack.register(new ByteArrayInputStream(new byte[0]), direct);
+        hijacked = System.out;
+    }
+
+    @TearDown
+    public void tearDown() {
+        StreamJack.deregister();
+    }
+
+    @Benchmark
+    public void println() {
+        direct.println(LINE);
+    }
+
+    @Benchmark
+    public void printlnHijacked() {
+        hijacked.println(LINE);
+    }
+
+    @Benchmark
+    public void writeByteHijacked() {
+        hijacked.write('x');
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.gshell.util.io.PumpStreamHandler;
+import org.sonatype.gshell.util.io.StreamSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks pumping the output of a system process through {@link PumpStreamHandler}, the same way as the
+ * <tt>exec</tt> command does.
+ * <p/>
+ * The small size measures the latency added to every process, the large one throughput.  Needs <tt>head</tt> and
+ * <tt>/dev/zero</tt>.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamPumpBenchmark
+{
+    @Param({
+        "1",
+        "1073741824"
+    })
+    public long bytes;
+
+    private StreamSet streams;
+
+    @Setup
+    public void setUp() {
+        PrintStream out = new PrintStream(new OutputStream()
+        {
+            @Override
+            public void write(final int b) {
+                // discard
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                // discard
+            }
+        });
+        streams = new StreamSet(new ByteArrayInputStream(new byte[0]), out);
+    }
+
+    @Benchmark
+    public int exec() throws Exception {
+        Process p = new ProcessBuilder("head", "-c", String.valueOf(bytes), "/dev/zero").start();
+
+        PumpStreamHandler handler = new PumpStreamHandler(streams);
+        handler.attach(p);
+        handler.start();
+
+        int status = p.waitFor();
+        handler.stop();
+
+        return status;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.gshell.variables.Variables;
+import org.sonatype.gshell.variables.VariablesImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link VariablesImpl#get} on chains of parent variables, as built up by nested shells and scripts.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariablesBenchmark
+{
+    @Param({ "1", "8", "32" })
+    public int depth;
+
+    private Variables vars;
+
+    @Setup
+    public void setUp() {
+        Variables root = new VariablesImpl();
+        root.set("root", "value");
+        root.set(Integer.class, 42);
+
+        Variables vars = root;
+        for (int i = 1; i < depth; i++) {
+            vars = new VariablesImpl(vars);
+            vars.set("level" + i, i);
+        }
+        vars.set("local", "value");
+        this.vars = vars;
+    }
+
+    @Benchmark
+    public Object getLocal() {
+        return vars.get("local");
+    }
+
+    @Benchmark
+    public Object getFromRoot() {
+        return vars.get("root");
+    }
+
+    @Benchmark
+    public Object getMissing() {
+        return vars.get("missing");
+    }
+
+    @Benchmark
+    public Object getTyped() {
+        return vars.get("root", String.class);
+    }
+
+    @Benchmark
+    public Object getByType() {
+        return vars.get(Integer.class);
+    }
+}
@@ -25,7 +25,6 @@ import org.sonatype.gshell.util.io.Flusher;
 import org.sonatype.gshell.util.cli2.Argument;
 import org.sonatype.gshell.util.cli2.Option;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
@@ -74,13 +73,18 @@ public class WgetCommand
             if (verbose) {
                 io.println("Saving to file: {}", outputFile); // TODO: i18n
             }
-            out = new BufferedOutputStream(new FileOutputStream(outputFile));
+            // Unbuffered, so the copy can transfer straight into the file channel
+            out = new FileOutputStream(outputFile);
         }
         else {
             out = io.streams.out;
         }
 
-        Copier.copy(in, out);
+        long start = System.nanoTime();
+        long bytes = Copier.transfer(in, out);
+        if (verbose) {
+            io.println("Transferred {} bytes at {} bytes/sec", bytes, Copier.rate(bytes, System.nanoTime() - start)); // TODO: i18n
+        }
 
         // if we write a file, close it then return the file
         if (outputFile != null) {
@@ -20,7 +20,10 @@ import org.apache.sshd.common.Factory;
 import org.apache.sshd.server.Command;
 import org.apache.sshd.server.Environment;
 import org.apache.sshd.server.ExitCallback;
+import org.slf4j.MDC;
+import org.sonatype.gshell.execute.CommandThreads;
 import org.sonatype.gshell.util.io.Closer;
+import org.sonatype.gshell.util.io.StreamJack;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -90,7 +93,7 @@ public class ShellFactoryImpl
                     }
                 };
 
-                Console console = new Console(commandProcessor,
+                final Console console = new Console(commandProcessor,
                                               in,
                                               new PrintStream(out, true),
                                               new PrintStream(err, true),
@@ -109,7 +112,20 @@ public class ShellFactoryImpl
                     session.put(e.getKey(), e.getValue());
                 }
 
-                new Thread(console).start();
+                CommandThreads.get().execute(new Runnable() {
+                    public void run() {
+                        // The session has its own streams, never those of a shell which last used the thread
+                        StreamJack.clear();
+                        MDC.clear();
+                        try {
+                            console.run();
+                        }
+                        finally {
+                            StreamJack.clear();
+                            MDC.clear();
+                        }
+                    }
+                });
             }
             catch (Exception e) {
                 throw (IOException) new IOException("Unable to start shell").initCause(e);
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.commands.standard;
+
+import org.sonatype.gshell.command.Command;
+import org.sonatype.gshell.command.CommandContext;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.job.Job;
+import org.sonatype.gshell.job.JobManager;
+import org.sonatype.gshell.util.cli2.Argument;
+
+/**
+ * Wait for a background job in the foreground.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@Command(name="fg")
+public class ForegroundCommand
+    extends JobCommandSupport
+{
+    @Argument
+    private String spec;
+
+    public Object execute(final CommandContext context) throws Exception {
+        assert context != null;
+        IO io = context.getIo();
+        JobManager jobs = getJobs(context);
+
+        Job job = findJob(jobs, io, spec);
+        if (job == null) {
+            return Result.FAILURE;
+        }
+
+        io.println(job.getCommand());
+
+        try {
+            return job.await();
+        }
+        finally {
+            if (job.isDone()) {
+                jobs.remove(job);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.commands.standard;
+
+import org.sonatype.gshell.command.CommandContext;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.command.support.CommandActionSupport;
+import org.sonatype.gshell.job.Job;
+import org.sonatype.gshell.job.JobControl;
+import org.sonatype.gshell.job.JobManager;
+import org.sonatype.gshell.shell.Shell;
+
+/**
+ * Support for commands which operate on background {@link Job}s.
+ * <p/>
+ * Commands only see the jobs of the shell they are executed by.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public abstract class JobCommandSupport
+    extends CommandActionSupport
+{
+    /**
+     * Returns the jobs of the shell executing the command.
+     *
+     * @throws IllegalStateException The shell does not support background jobs.
+     */
+    protected JobManager getJobs(final CommandContext context) {
+        assert context != null;
+
+        Shell shell = context.getShell();
+        JobManager jobs = shell instanceof JobControl ? ((JobControl) shell).getJobManager() : null;
+        if (jobs == null) {
+            throw new IllegalStateException("Background jobs are not supported by shell: " + shell);
+        }
+        return jobs;
+    }
+
+    /**
+     * Find a job by its spec; <tt>N</tt> or <tt>%N</tt> for job <tt>N</tt>, null or <tt>%%</tt> for the current job.
+     *
+     * @return The job, or null after reporting an error.
+     */
+    protected Job findJob(final JobManager jobs, final IO io, final String spec) {
+        assert jobs != null;
+        assert io != null;
+
+        if (spec == null || spec.equals("%%") || spec.equals("%+")) {
+            Job job = jobs.getCurrentJob();
+            if (job == null) {
+                io.error(getMessages().format("error.no-current-job"));
+            }
+            return job;
+        }
+
+        Job job = null;
+        try {
+            job = jobs.getJob(Integer.parseInt(spec.startsWith("%") ? spec.substring(1) : spec));
+        }
+        catch (NumberFormatException e) {
+            // ignore, reported below
+        }
+
+        if (job == null) {
+            io.error(getMessages().format("error.no-such-job", spec));
+        }
+        return job;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.commands.standard;
+
+import org.sonatype.gshell.command.Command;
+import org.sonatype.gshell.command.CommandContext;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.job.Job;
+import org.sonatype.gshell.job.JobManager;
+import org.sonatype.gshell.util.cli2.Argument;
+
+import java.util.List;
+
+/**
+ * Cancel background jobs.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@Command(name="kill")
+public class KillCommand
+    extends JobCommandSupport
+{
+    @Argument(required=true)
+    private List<String> specs;
+
+    public Object execute(final CommandContext context) throws Exception {
+        assert context != null;
+        IO io = context.getIo();
+        JobManager jobs = getJobs(context);
+
+        Object result = Result.SUCCESS;
+        for (String spec : specs) {
+            Job job = findJob(jobs, io, spec);
+            if (job == null) {
+                result = Result.FAILURE;
+                continue;
+            }
+
+            log.debug("Cancelling job: {}", job);
+
+            if (!job.cancel()) {
+                io.error(getMessages().format("error.job-completed", job.getId()));
+                result = Result.FAILURE;
+            }
+        }
+
+        return result;
+    }
+}
@@ -21,18 +21,18 @@ import jline.console.completer.Completer;
 import org.sonatype.gshell.command.Command;
 import org.sonatype.gshell.command.support.CommandActionSupport;
 import org.sonatype.gshell.command.CommandContext;
+import org.sonatype.gshell.execute.ScriptEngine;
+import org.sonatype.gshell.execute.ScriptException;
 import org.sonatype.gshell.util.io.Closer;
 import org.sonatype.gshell.shell.Shell;
-import org.sonatype.gshell.util.FileAssert;
 import org.sonatype.gshell.util.cli2.Argument;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLConnection;
 
 /**
  * Read and execute commands from a file in the current shell.
@@ -44,9 +44,17 @@ import java.net.URL;
 public class SourceCommand
     extends CommandActionSupport
 {
+    private ScriptEngine engine;
+
     @Argument(required = true)
     private String path;
 
+    @Inject
+    public void setEngine(final ScriptEngine engine) {
+        assert engine != null;
+        this.engine = engine;
+    }
+
     @Inject
     public SourceCommand installCompleters(final @Named("file-name") Completer c1) {
         assert c1 != null;
@@ -66,12 +74,23 @@ public class SourceCommand
             url = new File(path).toURI().toURL();
         }
 
-        BufferedReader reader = openReader(url);
+        log.info("Using source URL: {}", url);
+
+        // Small scripts are compiled up front, large (or unsized) ones streamed so they are never held in memory
+        URLConnection conn = url.openConnection();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
         try {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                shell.execute(line);
+            engine.execute(shell, path, reader, conn.getContentLength());
+        }
+        catch (ScriptException e) {
+            // Report the failing command's own error, same as when each line was executed separately
+            log.debug("Script failed: {}", e.getMessage());
+
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
             }
+            throw e;
         }
         finally {
             Closer.close(reader);
@@ -79,43 +98,4 @@ public class SourceCommand
 
         return Result.SUCCESS;
     }
-
-    private BufferedReader openReader(final Object source) throws IOException {
-        BufferedReader reader;
-
-        if (source instanceof File) {
-            File file = (File) source;
-            log.info("Using source file: {}", file);
-
-            new FileAssert(file).exists().isFile().isReadable();
-
-            reader = new BufferedReader(new FileReader(file));
-        }
-        else if (source instanceof URL) {
-            URL url = (URL) source;
-            log.info("Using source URL: {}", url);
-
-            reader = new BufferedReader(new InputStreamReader(url.openStream()));
-        }
-        else {
-            String tmp = String.valueOf(source);
-
-            // First try a URL
-            try {
-                URL url = new URL(tmp);
-                log.info("Using source URL: {}", url);
-
-                reader = new BufferedReader(new InputStreamReader(url.openStream()));
-            }
-            catch (MalformedURLException e) {
-                // They try a file
-                File file = new File(tmp);
-                log.info("Using source file: {}", file);
-
-                reader = new BufferedReader(new FileReader(tmp));
-            }
-        }
-
-        return reader;
-    }
 }
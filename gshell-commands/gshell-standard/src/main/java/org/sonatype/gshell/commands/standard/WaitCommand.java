@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.commands.standard;
+
+import org.sonatype.gshell.command.Command;
+import org.sonatype.gshell.command.CommandContext;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.job.Job;
+import org.sonatype.gshell.job.JobManager;
+import org.sonatype.gshell.util.cli2.Argument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Wait for background jobs to complete.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@Command(name="wait")
+public class WaitCommand
+    extends JobCommandSupport
+{
+    @Argument
+    private List<String> specs;
+
+    public Object execute(final CommandContext context) throws Exception {
+        assert context != null;
+        IO io = context.getIo();
+        JobManager jobs = getJobs(context);
+
+        List<Job> waiting = new ArrayList<Job>();
+        if (specs == null) {
+            waiting.addAll(jobs.getJobs());
+        }
+        else {
+            for (String spec : specs) {
+                Job job = findJob(jobs, io, spec);
+                if (job == null) {
+                    return Result.FAILURE;
+                }
+                waiting.add(job);
+            }
+        }
+
+        // The result is that of the last job waited for
+        Object result = Result.SUCCESS;
+        for (Job job : waiting) {
+            log.debug("Waiting for job: {}", job);
+
+            try {
+                result = job.await();
+            }
+            catch (CancellationException e) {
+                result = Result.FAILURE;
+            }
+            catch (Exception e) {
+                io.error(getMessages().format("error.job-failed", job.getId(), e));
+                result = Result.FAILURE;
+            }
+
+            jobs.remove(job);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.commands.standard;
+
+import org.junit.Test;
+import org.sonatype.gshell.command.support.CommandTestSupport;
+
+/**
+ * Tests for the {@link ForegroundCommand}.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class ForegroundCommandTest
+    extends CommandTestSupport
+{
+    public ForegroundCommandTest() {
+        super(ForegroundCommand.class);
+        requiredCommands.put("echo", EchoCommand.class);
+    }
+
+    @Override
+    @Test
+    public void testDefault() throws Exception {
+        // No current job
+        Object result = execute();
+        assertEqualsFailure(result);
+    }
+
+    @Test
+    public void testForegroundJob() throws Exception {
+        execute("echo hi &");
+        Object result = execute();
+        assertEqualsSuccess(result);
+    }
+}
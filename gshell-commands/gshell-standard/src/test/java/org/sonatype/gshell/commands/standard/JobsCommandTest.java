@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.commands.standard;
+
+import org.junit.Test;
+import org.sonatype.gshell.command.support.CommandTestSupport;
+import org.sonatype.gshell.job.Job;
+import org.sonatype.gshell.job.JobControl;
+import org.sonatype.gshell.job.JobManager;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the {@link JobsCommand}.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class JobsCommandTest
+    extends CommandTestSupport
+{
+    public JobsCommandTest() {
+        super(JobsCommand.class);
+    }
+
+    @Test
+    public void testListsAndRemovesJobFailedWithError() throws Exception {
+        JobManager jobs = ((JobControl) getShell()).getJobManager();
+        Job job = jobs.submit(getShell(), "fail", new Callable<Object>()
+        {
+            public Object call() throws Exception {
+                throw new AssertionError("failed");
+            }
+        });
+
+        try {
+            job.await();
+            fail();
+        }
+        catch (AssertionError expected) {
+            // ignore
+        }
+
+        Object result = execute();
+        assertEqualsSuccess(result);
+        assertTrue(getIo().getOutputString().contains("FAILED fail"));
+        assertTrue(jobs.getJobs().isEmpty());
+    }
+}
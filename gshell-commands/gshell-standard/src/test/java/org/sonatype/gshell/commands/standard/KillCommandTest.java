@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.commands.standard;
+
+import org.junit.Test;
+import org.sonatype.gshell.command.support.CommandTestSupport;
+import org.sonatype.gshell.job.Job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the {@link KillCommand}.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class KillCommandTest
+    extends CommandTestSupport
+{
+    public KillCommandTest() {
+        super(KillCommand.class);
+        requiredCommands.put("echo", EchoCommand.class);
+    }
+
+    @Override
+    @Test
+    public void testDefault() throws Exception {
+        try {
+            super.testDefault();
+            fail();
+        }
+        catch (Exception e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testKillCompletedJob() throws Exception {
+        Job job = (Job) execute("echo hi &");
+        job.await();
+
+        Object result = executeWithArgs("%1");
+        assertEqualsFailure(result);
+        assertEquals(Job.State.DONE, job.getState());
+    }
+}
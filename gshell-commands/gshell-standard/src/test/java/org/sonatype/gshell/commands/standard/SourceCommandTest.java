@@ -16,6 +16,7 @@
 package org.sonatype.gshell.commands.standard;
 
 import org.junit.Test;
+import org.sonatype.gshell.command.registry.NoSuchCommandException;
 import org.sonatype.gshell.command.support.CommandTestSupport;
 
 import java.io.FileNotFoundException;
@@ -101,4 +102,20 @@ public class SourceCommandTest
         Object value = vars.get("foo");
         assertEquals(value, "bar");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFailureReportsCommandError() throws Exception {
+        URL script = getClass().getResource("test3.tsh");
+        assertNotNull(script);
+        try {
+            executeWithArgs(script.toExternalForm());
+            fail();
+        }
+        catch (NoSuchCommandException e) {
+            // expected, not wrapped in a ScriptException
+        }
+
+        // Lines before the failure have been executed
+        assertTrue(vars.contains("foo"));
+    }
+}
@@ -58,7 +58,7 @@ public class AliasNameCompleter
         delegate.getStrings().addAll(aliases.keySet());
 
         // Register for updates to alias registrations
-        events.addListener(new EventListener()
+        EventListener listener = new EventListener()
         {
             public void onEvent(final EventObject event) throws Exception {
                 if (event instanceof AliasRegisteredEvent) {
@@ -70,7 +70,9 @@ public class AliasNameCompleter
                     delegate.getStrings().remove(target.getName());
                 }
             }
-        });
+        };
+        events.addListener(listener, AliasRegisteredEvent.class);
+        events.addListener(listener, AliasRemovedEvent.class);
 
         initialized = true;
     }
@@ -27,6 +27,11 @@ import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides access to input/output handles.
@@ -215,13 +220,15 @@ public class IO
     //
     // HACK: Replacing SLF4J MessageFormatter.arrayFormat() with String.format() dynamically... need to update code to use new syntax
     //
+    // Formats are compiled once and cached, see Format.
+    //
 
     /**
      * @since 2.5
      */
     public void println(final String format, final Object... args) {
         if (isNormal()) {
-            out.println(String.format(format.replaceAll("\\{\\}", "%s"), args));
+            out.println(Format.get(format).render(args));
         }
     }
 
@@ -233,7 +240,7 @@ public class IO
 
     public void warn(final String format, final Object... args) {
         if (!isQuiet()) {
-            err.println(String.format(format.replaceAll("\\{\\}", "%s"), args));
+            err.println(Format.get(format).render(args));
         }
     }
 
@@ -245,7 +252,85 @@ public class IO
 
     public void error(final String format, final Object... args) {
         if (!isSilent()) {
-            err.println(String.format(format.replaceAll("\\{\\}", "%s"), args));
+            err.println(Format.get(format).render(args));
+        }
+    }
+
+    /**
+     * A <tt>{}</tt> style format, compiled once.
+     * <p/>
+     * Formats which have no other <tt>%</tt> directives are rendered by plain concatenation; others are converted to
+     * <tt>%s</tt> style and rendered with {@link String#format}.
+     *
+     * @since 2.6.6
+     */
+    static final class Format
+    {
+        private static final int MAX_CACHED = 256;
+
+        private static final Map<String, Format> cache = new ConcurrentHashMap<String, Format>();
+
+        /**
+         * Converted format for {@link String#format}.
+         */
+        private final String pattern;
+
+        /**
+         * Literal text around each placeholder, or null if the format must be rendered with {@link String#format}.
+         */
+        private final String[] literals;
+
+        private Format(final String format) {
+            List<String> parts = new ArrayList<String>();
+            StringBuilder buff = new StringBuilder(format.length() + 8);
+            int last = 0;
+            for (int i = format.indexOf("{}"); i != -1; i = format.indexOf("{}", last)) {
+                parts.add(format.substring(last, i));
+                buff.append(format, last, i).append("%s");
+                last = i + 2;
+            }
+            parts.add(format.substring(last));
+            buff.append(format, last, format.length());
+
+            this.pattern = buff.toString();
+            this.literals = format.indexOf('%') == -1 ? parts.toArray(new String[parts.size()]) : null;
+        }
+
+        static Format get(final String format) {
+            assert format != null;
+
+            Format result = cache.get(format);
+            if (result == null) {
+                // Formats are almost always constants; if not, start over rather than grow without bound
+                if (cache.size() >= MAX_CACHED) {
+                    cache.clear();
+                }
+                result = new Format(format);
+                cache.put(format, result);
+            }
+            return result;
+        }
+
+        String render(final Object... args) {
+            int count = literals != null ? literals.length - 1 : -1;
+            if (count == -1 || args == null || args.length < count || hasFormattable(args, count)) {
+                return String.format(pattern, args);
+            }
+
+            StringBuilder buff = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                buff.append(literals[i]).append(args[i]);
+            }
+            return buff.append(literals[count]).toString();
+        }
+
+        private static boolean hasFormattable(final Object[] args, final int count) {
+            for (int i = 0; i < count; i++) {
+                if (args[i] instanceof Formattable) {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 }
@@ -58,7 +58,7 @@ public class CommandNameCompleter
         delegate.getStrings().addAll(names);
 
         // Register for updates to command registrations
-        events.addListener(new EventListener()
+        EventListener listener = new EventListener()
         {
             public void onEvent(final EventObject event) throws Exception {
                 if (event instanceof CommandRegisteredEvent) {
@@ -70,7 +70,9 @@ public class CommandNameCompleter
                     delegate.getStrings().remove(target.getName());
                 }
             }
-        });
+        };
+        events.addListener(listener, CommandRegisteredEvent.class);
+        events.addListener(listener, CommandRemovedEvent.class);
 
         initialized = true;
     }
@@ -32,12 +32,17 @@ import org.sonatype.gshell.variables.Variables;
 import java.util.ArrayList;
 import java.util.EventObject;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.sonatype.gshell.command.resolver.Node.*;
 import static org.sonatype.gshell.variables.VariableNames.*;
 
 /**
  * {@link CommandResolver} component.
+ * <p/>
+ * The search path and resolved names are memoized; they are recomputed when the <tt>shell.group</tt> or
+ * <tt>shell.group.path</tt> variables of the current shell change, or when nodes are added to or removed from the tree.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.5
@@ -52,6 +57,8 @@ public class CommandResolverImpl
 
     private final Node root;
 
+    private volatile SearchPath cached;
+
     @Inject
     public CommandResolverImpl(final Provider<Variables> variables, final EventManager events, final CommandRegistry commands) {
         assert variables != null;
@@ -68,7 +75,7 @@ public class CommandResolverImpl
 
         // Add a listener to mange the command tree
         assert events != null;
-        events.addListener(new EventListener()
+        EventListener listener = new EventListener()
         {
             public void onEvent(final EventObject event) throws Exception {
                 assert event != null;
@@ -81,7 +88,10 @@ public class CommandResolverImpl
                     root.remove(target.getName());
                 }
             }
-        });
+        };
+        // Commands must be resolvable as soon as they have been registered
+        events.addListener(listener, CommandRegisteredEvent.class, EventManager.Delivery.SYNCHRONOUS);
+        events.addListener(listener, CommandRemovedEvent.class, EventManager.Delivery.SYNCHRONOUS);
     }
 
     public Node root() {
@@ -89,9 +99,12 @@ public class CommandResolverImpl
     }
 
     public Node group() {
+        return group(variables.get().get(SHELL_GROUP));
+    }
+
+    private Node group(final Object tmp) {
         Node node;
 
-        Object tmp = variables.get().get(SHELL_GROUP);
         if (tmp instanceof String) {
             node = root.find((String)tmp);
         }
@@ -112,9 +125,27 @@ public class CommandResolverImpl
     }
 
     public List<Node> searchPath() {
+        return new ArrayList<Node>(searchPath0().nodes);
+    }
+
+    private SearchPath searchPath0() {
+        Variables vars = variables.get();
+        Object group = vars.get(SHELL_GROUP);
+        Object path = vars.get(SHELL_GROUP_PATH);
+        int version = root.getModifications();
+
+        SearchPath current = cached;
+        if (current == null || !current.matches(group, path, version)) {
+            current = new SearchPath(group, path, version, buildSearchPath(group, path));
+            cached = current;
+        }
+
+        return current;
+    }
+
+    private List<Node> buildSearchPath(final Object group, Object tmp) {
         List<Node> path = new ArrayList<Node>();
 
-        Object tmp = variables.get().get(SHELL_GROUP_PATH);
         if (tmp != null && !(tmp instanceof String)) {
             log.warn("Unexpected value for {}: {}", SHELL_GROUP_PATH, tmp);
             tmp = null;
@@ -123,7 +154,7 @@ public class CommandResolverImpl
             tmp = String.format("%s%s%s", CURRENT, PATH_SEPARATOR, ROOT);
         }
 
-        Node base = group();
+        Node base = group(group);
         for (String element : ((String)tmp).split(PATH_SEPARATOR)) {
             Node node = base.find(element);
             if (node == null) {
@@ -145,15 +176,55 @@ public class CommandResolverImpl
 
         log.trace("Resolving: {}", name);
 
-        for (Node base : searchPath()) {
-            Node node = base.find(name);
+        SearchPath current = searchPath0();
+        Node node = current.resolved.get(name);
+        if (node != null) {
+            return node;
+        }
+
+        for (Node base : current.nodes) {
+            if (base == null) {
+                continue;
+            }
+            node = base.find(name);
             if (node != null) {
                 log.trace("Resolved: {} -> {}", name, node);
+                current.resolved.put(name, node);
                 return node;
             }
-
         }
 
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * A computed search path, and the names resolved through it.
+     */
+    private static class SearchPath
+    {
+        private final Object group;
+
+        private final Object path;
+
+        private final int version;
+
+        private final List<Node> nodes;
+
+        private final Map<String,Node> resolved = new ConcurrentHashMap<String,Node>();
+
+        private SearchPath(final Object group, final Object path, final int version, final List<Node> nodes) {
+            this.group = group;
+            this.path = path;
+            this.version = version;
+            this.nodes = nodes;
+        }
+
+        public boolean matches(final Object group, final Object path, final int version) {
+            return this.version == version && same(this.group, group) && same(this.path, path);
+        }
+
+        private static boolean same(final Object a, final Object b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+}
@@ -22,7 +22,9 @@ import org.sonatype.gshell.command.CommandAction;
 import org.sonatype.gshell.command.GroupAction;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 
 /**
  * A node for building a {@link CommandAction} tree.
@@ -51,7 +53,15 @@ public class Node
 
     private final Node parent;
 
-    private final Collection<Node> children = new LinkedHashSet<Node>();
+    /**
+     * Children indexed by name, in the order they were added.
+     */
+    private final Map<String,Node> children = new LinkedHashMap<String,Node>();
+
+    /**
+     * Number of changes to the tree; only maintained on the root node.
+     */
+    private volatile int modifications;
 
     public Node(final String name, final CommandAction action, final Node parent) {
         assert name != null;
@@ -102,6 +112,15 @@ public class Node
         return action instanceof GroupAction;
     }
 
+    /**
+     * Returns the number of nodes added to or removed from the tree this node is part of.
+     *
+     * @since 2.6.6
+     */
+    public int getModifications() {
+        return root().modifications;
+    }
+
     public Node root() {
         Node node = this;
         while (!node.isRoot()) {
@@ -127,27 +146,21 @@ public class Node
             return this;
         }
 
-        for (Node child : children) {
-            if (child.name.equals(name)) {
-                return child;
-            }
-        }
-
-        return null;
+        return children.get(name);
     }
 
     public Collection<Node> children() {
-        return children;
+        return children.values();
     }
 
     public Collection<Node> children(final String name) {
         if (name == null) {
-            return children;
+            return children.values();
         }
 
         Collection<Node> nodes = new LinkedHashSet<Node>();
 
-        for (Node child : children) {
+        for (Node child : children.values()) {
             if (child.name.startsWith(name)) {
                 nodes.add(child);
             }
@@ -159,6 +172,11 @@ public class Node
     public Node find(final String name) {
         assert name != null;
 
+        // Simple names need no path processing
+        if (name.indexOf(SEPARATOR) == -1) {
+            return get(name);
+        }
+
         NodePath path = new NodePath(name);
         Node node = this;
         String[] elements = path.split();
@@ -200,7 +218,8 @@ public class Node
                     throw new RuntimeException("Invalid path; found existing node: " + elements[i] + " at the end of: " + name);
                 }
                 node = new Node(elements[i], command, current);
-                current.children.add(node);
+                current.children.put(node.name, node);
+                root().modifications++;
                 log.trace("Added command node: {} in parent: {}", node.name, node.parent.name);
             }
             else {
@@ -215,7 +234,7 @@ public class Node
                         group = String.format("%s%s%s", current.getPath(), SEPARATOR, elements[i]);
                     }
                     node = new Node(elements[i], new GroupAction(group), current);
-                    current.children.add(node);
+                    current.children.put(node.name, node);
                     log.trace("Added group node: {}", group);
                 }
                 else if (!node.isGroup()) {
@@ -232,8 +251,9 @@ public class Node
         assert name != null;
         
         Node node = find(name);
-        if (node != null) {
-            node.children.remove(node);
+        if (node != null && node.parent != null) {
+            node.parent.children.remove(node.name);
+            root().modifications++;
         }
     }
 
@@ -25,9 +25,59 @@ import java.util.EventObject;
  */
 public interface EventManager
 {
+    /**
+     * How events are delivered to a listener.
+     *
+     * @since 2.6.6
+     */
+    enum Delivery
+    {
+        /**
+         * On the publishing thread, before {@link EventManager#publish} returns.
+         */
+        SYNCHRONOUS,
+
+        /**
+         * In order, on a separate thread; the publisher does not wait for the listener.
+         */
+        ASYNCHRONOUS
+    }
+
     void addListener(EventListener listener);
 
+    /**
+     * Add a listener which only receives events of the given type, or one of its sub-types.
+     *
+     * @since 2.6.6
+     */
+    void addListener(EventListener listener, Class<? extends EventObject> type);
+
+    /**
+     * Add a listener which only receives events of the given type, or one of its sub-types, with the given delivery.
+     * Listeners which must observe changes before the publisher continues should use {@link Delivery#SYNCHRONOUS}.
+     *
+     * @since 2.6.6
+     */
+    void addListener(EventListener listener, Class<? extends EventObject> type, Delivery delivery);
+
+    /**
+     * Remove all subscriptions of the given listener.
+     */
     void removeListener(EventListener listener);
 
+    /**
+     * Check if any listener would receive an event of the given type; allows publishers to skip creating events.
+     *
+     * @since 2.6.6
+     */
+    boolean hasListeners(Class<? extends EventObject> type);
+
     void publish(EventObject event);
+
+    /**
+     * Deliver any events held back by an {@link EventPolicy}.
+     *
+     * @since 2.6.6
+     */
+    void flush();
 }
\ No newline at end of file
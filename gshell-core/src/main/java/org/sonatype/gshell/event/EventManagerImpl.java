@@ -19,12 +19,30 @@ import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.EventObject;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The default {@link EventManager} components.
+ * <p/>
+ * Subscriptions are kept in a copy-on-write array, and the listeners for each event class are resolved once and
+ * indexed until the subscriptions change; publishing an event nobody subscribed to costs a single map lookup.
+ * <p/>
+ * Each subscription has its own {@link Delivery}; subscriptions which do not give one use the default of the manager,
+ * which is {@link Delivery#SYNCHRONOUS} unless configured otherwise.  Synchronous listeners are called on the
+ * publishing thread.  Events for asynchronous listeners are queued in a bounded ring buffer and delivered in order,
+ * in batches, by a single daemon thread, started when first needed and stopped by {@link #close}; publishers block
+ * only while the buffer is full.
+ * <p/>
+ * An optional {@link EventPolicy} may suppress events, or hold them back until {@link #flush}, so that repeated
+ * events with the same key are delivered once.  Held events are flushed before any event which is delivered
+ * immediately, so listeners always see events in order.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.0
@@ -33,17 +51,115 @@ import java.util.Set;
 public class EventManagerImpl
     implements EventManager
 {
+    /**
+     * @since 2.6.6
+     */
+    public static final int BUFFER_SIZE = 1024;
+
+    /**
+     * @since 2.6.6
+     */
+    public static final int BATCH_SIZE = 64;
+
+    private static final EventListener[] NO_LISTENERS = {};
+
+    private static final Targets NO_TARGETS = new Targets(NO_LISTENERS, NO_LISTENERS);
+
+    /**
+     * Queued after the last event, to stop the dispatcher.
+     */
+    private static final Pending STOP = new Pending(null, NO_LISTENERS);
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    private final Set<EventListener> listeners = new LinkedHashSet<EventListener>();
+    private final Delivery delivery;
+
+    /**
+     * Guarded by {@link #lock}; replaced, never modified.
+     */
+    private volatile Subscription[] subscriptions = {};
+
+    /**
+     * Listeners by event class; replaced when the subscriptions change.
+     */
+    private volatile Map<Class<?>, Targets> index = new ConcurrentHashMap<Class<?>, Targets>();
+
+    private final Object lock = new Object();
+
+    /**
+     * Written while holding {@link #lock}.
+     */
+    private volatile Dispatcher dispatcher;
+
+    private volatile EventPolicy policy;
+
+    /**
+     * Events held back by the policy, by key; guarded by itself.
+     */
+    private final Map<Object, EventObject> coalesced = new LinkedHashMap<Object, EventObject>();
+
+    /**
+     * @param delivery  The delivery of subscriptions which do not specify one.
+     */
+    public EventManagerImpl(final Delivery delivery) {
+        assert delivery != null;
+        this.delivery = delivery;
+    }
+
+    public EventManagerImpl() {
+        this(Delivery.SYNCHRONOUS);
+    }
+
+    /**
+     * Returns the delivery of subscriptions which do not specify one.
+     *
+     * @since 2.6.6
+     */
+    public Delivery getDelivery() {
+        return delivery;
+    }
+
+    /**
+     * @since 2.6.6
+     */
+    public EventPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @since 2.6.6
+     */
+    public void setPolicy(final EventPolicy policy) {
+        this.policy = policy;
+    }
 
     public void addListener(final EventListener listener) {
+        addListener(listener, EventObject.class);
+    }
+
+    public void addListener(final EventListener listener, final Class<? extends EventObject> type) {
+        addListener(listener, type, delivery);
+    }
+
+    public void addListener(final EventListener listener, final Class<? extends EventObject> type, final Delivery delivery) {
         assert listener != null;
+        assert type != null;
+        assert delivery != null;
+
+        log.trace("Adding listener: {}, for: {}", listener, type);
 
-        log.trace("Adding listener: {}", listener);
+        synchronized (lock) {
+            Subscription[] current = subscriptions;
+            for (Subscription subscription : current) {
+                if (subscription.listener == listener && subscription.type == type) {
+                    return;
+                }
+            }
 
-        synchronized (listeners) {
-            listeners.add(listener);
+            Subscription[] updated = new Subscription[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = new Subscription(listener, type, delivery);
+            update(updated);
         }
     }
 
@@ -52,24 +168,153 @@ public class EventManagerImpl
 
         log.trace("Removing listener: {}", listener);
 
-        synchronized (listeners) {
-            listeners.remove(listener);
+        synchronized (lock) {
+            List<Subscription> updated = new ArrayList<Subscription>(subscriptions.length);
+            for (Subscription subscription : subscriptions) {
+                if (subscription.listener != listener) {
+                    updated.add(subscription);
+                }
+            }
+            if (updated.size() != subscriptions.length) {
+                update(updated.toArray(new Subscription[updated.size()]));
+            }
         }
     }
 
-    private EventListener[] getListeners() {
-        synchronized (listeners) {
-            return listeners.toArray(new EventListener[listeners.size()]);
+    /**
+     * Must be called while holding the lock.
+     */
+    private void update(final Subscription[] subscriptions) {
+        // Publish the subscriptions before the new index, so the index is never filled from stale subscriptions
+        this.subscriptions = subscriptions;
+        this.index = new ConcurrentHashMap<Class<?>, Targets>();
+    }
+
+    private Targets getTargets(final Class<?> type) {
+        Map<Class<?>, Targets> index = this.index;
+        Targets targets = index.get(type);
+
+        if (targets == null) {
+            List<EventListener> matched = new ArrayList<EventListener>();
+            List<EventListener> synchronous = new ArrayList<EventListener>();
+            List<EventListener> asynchronous = new ArrayList<EventListener>();
+            for (Subscription subscription : subscriptions) {
+                // The first matching subscription of a listener decides its delivery
+                if (subscription.type.isAssignableFrom(type) && !matched.contains(subscription.listener)) {
+                    matched.add(subscription.listener);
+                    if (subscription.delivery == Delivery.ASYNCHRONOUS) {
+                        asynchronous.add(subscription.listener);
+                    }
+                    else {
+                        synchronous.add(subscription.listener);
+                    }
+                }
+            }
+            targets = matched.isEmpty() ? NO_TARGETS : new Targets(toArray(synchronous), toArray(asynchronous));
+            index.put(type, targets);
         }
+
+        return targets;
+    }
+
+    private static EventListener[] toArray(final List<EventListener> listeners) {
+        return listeners.isEmpty() ? NO_LISTENERS : listeners.toArray(new EventListener[listeners.size()]);
+    }
+
+    public boolean hasListeners(final Class<? extends EventObject> type) {
+        assert type != null;
+
+        return getTargets(type) != NO_TARGETS;
     }
 
     public void publish(final EventObject event) {
         assert event != null;
 
-        log.trace("Publishing event: {}", event);
+        Targets targets = getTargets(event.getClass());
+        if (targets == NO_TARGETS) {
+            return;
+        }
+
+        EventPolicy policy = this.policy;
+        EventPolicy.Action action = policy != null ? policy.getAction(event) : EventPolicy.Action.PUBLISH;
 
-        for (EventListener listener : getListeners()) {
-            log.trace("Firing event ({}) to listener: {}", event, listener);
+        switch (action) {
+            case SUPPRESS:
+                return;
+
+            case COALESCE:
+                Object key = policy.getKey(event);
+                synchronized (coalesced) {
+                    // Combine with any held event, keeping the position of the latest one
+                    EventObject held = coalesced.remove(key);
+                    coalesced.put(key, held != null ? policy.coalesce(held, event) : event);
+                }
+                return;
+
+            default:
+                flush();
+                deliver(event, targets);
+        }
+    }
+
+    public void flush() {
+        EventObject[] events;
+        synchronized (coalesced) {
+            if (coalesced.isEmpty()) {
+                return;
+            }
+            events = coalesced.values().toArray(new EventObject[coalesced.size()]);
+            coalesced.clear();
+        }
+
+        for (EventObject event : events) {
+            // Listeners may have changed while the event was held
+            Targets targets = getTargets(event.getClass());
+            if (targets != NO_TARGETS) {
+                deliver(event, targets);
+            }
+        }
+    }
+
+    /**
+     * Deliver any held events, wait for queued events to be delivered and stop the dispatcher thread, if any.
+     * <p/>
+     * The manager remains usable; a new dispatcher thread is started if more events are queued later.
+     *
+     * @since 2.6.6
+     */
+    public void close() {
+        flush();
+
+        Dispatcher dispatcher;
+        synchronized (lock) {
+            dispatcher = this.dispatcher;
+            this.dispatcher = null;
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    private void deliver(final EventObject event, final Targets targets) {
+        if (log.isTraceEnabled()) {
+            log.trace("Publishing event: {}", event);
+        }
+
+        if (targets.asynchronous.length != 0) {
+            Pending pending = new Pending(event, targets.asynchronous);
+            while (!getDispatcher().enqueue(pending)) {
+                // Raced with close(), try again with a new dispatcher
+            }
+        }
+        fire(event, targets.synchronous);
+    }
+
+    private void fire(final EventObject event, final EventListener[] listeners) {
+        for (EventListener listener : listeners) {
+            if (log.isTraceEnabled()) {
+                log.trace("Firing event ({}) to listener: {}", event, listener);
+            }
 
             try {
                 listener.onEvent(event);
@@ -79,4 +324,154 @@ public class EventManagerImpl
             }
         }
     }
-}
\ No newline at end of file
+
+    private Dispatcher getDispatcher() {
+        Dispatcher dispatcher = this.dispatcher;
+        if (dispatcher == null) {
+            synchronized (lock) {
+                dispatcher = this.dispatcher;
+                if (dispatcher == null) {
+                    dispatcher = new Dispatcher();
+                    dispatcher.start();
+                    this.dispatcher = dispatcher;
+                }
+            }
+        }
+        return dispatcher;
+    }
+
+    private static class Subscription
+    {
+        private final EventListener listener;
+
+        private final Class<?> type;
+
+        private final Delivery delivery;
+
+        private Subscription(final EventListener listener, final Class<?> type, final Delivery delivery) {
+            this.listener = listener;
+            this.type = type;
+            this.delivery = delivery;
+        }
+    }
+
+    /**
+     * The listeners for an event class, by delivery.
+     */
+    private static class Targets
+    {
+        private final EventListener[] synchronous;
+
+        private final EventListener[] asynchronous;
+
+        private Targets(final EventListener[] synchronous, final EventListener[] asynchronous) {
+            this.synchronous = synchronous;
+            this.asynchronous = asynchronous;
+        }
+    }
+
+    //
+    // Asynchronous delivery
+    //
+
+    /**
+     * An event and the listeners it was published to.
+     */
+    private static class Pending
+    {
+        private final EventObject event;
+
+        private final EventListener[] listeners;
+
+        private Pending(final EventObject event, final EventListener[] listeners) {
+            this.event = event;
+            this.listeners = listeners;
+        }
+    }
+
+    private class Dispatcher
+        extends Thread
+    {
+        private final BlockingQueue<Pending> buffer = new ArrayBlockingQueue<Pending>(BUFFER_SIZE);
+
+        /**
+         * Guarded by this.
+         */
+        private boolean stopped;
+
+        private Dispatcher() {
+            super("event-dispatcher");
+            setDaemon(true);
+        }
+
+        /**
+         * @return False if the dispatcher has been stopped, and did not accept the event.
+         */
+        private synchronized boolean enqueue(final Pending pending) {
+            if (stopped) {
+                return false;
+            }
+            try {
+                buffer.put(pending);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while publishing event: {}", pending.event);
+            }
+            return true;
+        }
+
+        private void shutdown() {
+            synchronized (this) {
+                if (stopped) {
+                    return;
+                }
+                stopped = true;
+                try {
+                    buffer.put(STOP);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupt();
+                    return;
+                }
+            }
+
+            // Listeners may close the manager, they can not wait for themselves
+            if (Thread.currentThread() != this) {
+                try {
+                    join();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Pending> batch = new ArrayList<Pending>(BATCH_SIZE);
+
+            while (true) {
+                try {
+                    batch.add(buffer.take());
+                }
+                catch (InterruptedException e) {
+                    log.debug("Dispatcher interrupted");
+                    return;
+                }
+
+                // Deliver whatever else is already waiting in the same pass
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+                for (Pending pending : batch) {
+                    if (pending == STOP) {
+                        log.debug("Dispatcher stopped");
+                        return;
+                    }
+                    fire(pending.event, pending.listeners);
+                }
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.event;
+
+import java.util.EventObject;
+
+/**
+ * Decides how a published event is delivered.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public interface EventPolicy
+{
+    enum Action
+    {
+        /**
+         * Deliver the event now.
+         */
+        PUBLISH,
+
+        /**
+         * Hold the event until {@link EventManager#flush}; a held event is combined with any other held event with an
+         * equal {@link EventPolicy#getKey key}, see {@link EventPolicy#coalesce}.
+         */
+        COALESCE,
+
+        /**
+         * Drop the event.
+         */
+        SUPPRESS
+    }
+
+    Action getAction(EventObject event);
+
+    /**
+     * Returns the key of an event to hold; held events with equal keys are coalesced.
+     */
+    Object getKey(EventObject event);
+
+    /**
+     * Combine an event with the held event of the same key.
+     *
+     * @return The event to hold in place of both.
+     */
+    EventObject coalesce(EventObject held, EventObject event);
+}
@@ -29,6 +29,7 @@ import org.sonatype.gshell.command.resolver.CommandResolver;
 import org.sonatype.gshell.command.resolver.Node;
 import org.sonatype.gshell.command.support.CommandHelpSupport;
 import org.sonatype.gshell.command.support.CommandPreferenceSupport;
+import org.sonatype.gshell.event.EventManager;
 import org.sonatype.gshell.notification.ErrorNotification;
 import org.sonatype.gshell.notification.ResultNotification;
 import org.sonatype.gshell.parser.CommandLineParser;
@@ -65,6 +66,19 @@ public class CommandExecutorImpl
 
     private final CommandLineParser parser;
 
+    private EventManager events;
+
+    /**
+     * Nesting of executions on the current thread; held events are flushed when the outermost one returns.
+     */
+    private final ThreadLocal<int[]> depth = new ThreadLocal<int[]>()
+    {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
     @Inject
     public CommandExecutorImpl(final AliasRegistry aliases, final CommandResolver resolver, final CommandLineParser parser) {
         assert aliases != null;
@@ -75,6 +89,17 @@ public class CommandExecutorImpl
         this.parser = parser;
     }
 
+    /**
+     * Events held back by the {@link org.sonatype.gshell.event.EventPolicy} are delivered after each top-level
+     * command-line or command, however it was executed.
+     *
+     * @since 2.6.6
+     */
+    @Inject
+    public void setEventManager(final EventManager events) {
+        this.events = events;
+    }
+
     public Object execute(final Shell shell, final String line) throws Exception {
         assert shell != null;
         assert line != null;
@@ -88,6 +113,7 @@ public class CommandExecutorImpl
 
         CommandLine cl = parser.parse(line);
 
+        enter();
         try {
             return cl.execute(shell, this);
         }
@@ -107,6 +133,17 @@ public class CommandExecutorImpl
         }
         finally {
             ShellHolder.set(lastShell);
+            exit();
+        }
+    }
+
+    private void enter() {
+        depth.get()[0]++;
+    }
+
+    private void exit() {
+        if (--depth.get()[0] == 0 && events != null) {
+            events.flush();
         }
     }
 
@@ -139,7 +176,20 @@ public class CommandExecutorImpl
         assert name != null;
         assert args != null;
 
-        log.debug("Executing ({}): [{}]", name, Strings.join(args, ", "));
+        enter();
+        try {
+            return executeCommand(shell, name, args);
+        }
+        finally {
+            exit();
+        }
+    }
+
+    private Object executeCommand(final Shell shell, final String name, final Object[] args) throws Exception {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Executing ({}): [{}]", name, Strings.join(args, ", "));
+        }
 
         final CommandAction action = createAction(name);
         MDC.put(CommandAction.class.getName(), name);
@@ -162,7 +212,7 @@ public class CommandExecutorImpl
             if (!(action instanceof OpaqueArguments)) {
                 CommandHelpSupport help = new CommandHelpSupport();
                 CliProcessor clp = help.createProcessor(action);
-                clp.process(Arguments.toStringArray(args));
+                clp.process(args);
 
                 // Render command-line usage
                 if (help.displayHelp) {
@@ -205,11 +255,13 @@ public class CommandExecutorImpl
             }
         }
         finally {
-            io.flush();
             StreamJack.deregister();
             ShellHolder.set(lastShell);
             Thread.currentThread().setContextClassLoader(cl);
             MDC.remove(CommandAction.class.getName());
+
+            // Last, flushing the output of a pipeline stage may fail once the next stage has stopped reading
+            io.flush();
         }
 
         shell.getVariables().set(LAST_RESULT, result);
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.execute;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.sonatype.gshell.util.io.StreamJack;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides threads for work which executes concurrently with the shell, such as pipeline stages and remote sessions.
+ * <p/>
+ * By default daemon platform threads are pooled and reused.  Setting the {@link #VIRTUAL} system property to
+ * <tt>true</tt> opts in to a new virtual thread per task instead, when the runtime supports them.
+ * <p/>
+ * In either mode tasks can not rely on state inherited through {@link InheritableThreadLocal}s, as pooled threads
+ * are reused by unrelated tasks; tasks must install the shell, {@link StreamJack} registration and logging
+ * {@link MDC} they need explicitly, and restore them when done.  Pooled threads start with neither registered.
+ * <p/>
+ * Plain commands still execute on the calling thread; only pipeline stages, jobs and remote sessions use these.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class CommandThreads
+{
+    public static final String VIRTUAL = CommandThreads.class.getName() + ".virtual";
+
+    private static final Logger log = LoggerFactory.getLogger(CommandThreads.class);
+
+    private static ExecutorService instance;
+
+    public static ExecutorService create() {
+        if (Boolean.getBoolean(VIRTUAL)) {
+            try {
+                // Looked up reflectively, virtual threads are not available on all supported runtimes
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            }
+            catch (Exception e) {
+                log.warn("Virtual threads are not supported by this runtime; using platform threads");
+            }
+        }
+
+        return Executors.newCachedThreadPool(new DaemonThreadFactory());
+    }
+
+    public static synchronized ExecutorService get() {
+        if (instance == null) {
+            instance = create();
+            log.debug("Using command threads: {}", instance);
+        }
+
+        return instance;
+    }
+
+    private static class DaemonThreadFactory
+        implements ThreadFactory
+    {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        public Thread newThread(final Runnable task) {
+            Runnable clean = new Runnable()
+            {
+                public void run() {
+                    // Drop state inherited from whichever thread happened to cause this one to be created
+                    StreamJack.clear();
+                    MDC.clear();
+                    task.run();
+                }
+            };
+
+            Thread thread = new Thread(clean, "command-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
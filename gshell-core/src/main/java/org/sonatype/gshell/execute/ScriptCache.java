@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.execute;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonatype.gshell.execute.ScriptEngine.Script;
+import org.sonatype.gshell.parser.CommandLineParser.CommandLine;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan;
+import org.sonatype.gshell.parser.impl.plan.PlanCodec;
+import org.sonatype.gshell.util.io.Closer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * Stores compiled {@link Script}s on disk, so unchanged scripts can be loaded without parsing.
+ * <p/>
+ * There is one file per script, named by a digest of the script's name; each file records the digest of the
+ * content it was compiled from, and is only used while that still matches.  Files written by a different build (or
+ * {@link PlanCodec#VERSION}) are also ignored, as the grammar or plans may have changed since.  Any problem reading or writing the
+ * cache is logged and treated as a miss.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+final class ScriptCache
+{
+    private static final int MAGIC = 0x47535043; // GSPC
+
+    private static final String SUFFIX = ".plan";
+
+    /**
+     * Identifies the build which wrote a cached script; filtered in at build time.
+     */
+    private static final String BUILD = loadBuild();
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final File dir;
+
+    ScriptCache(final File dir) {
+        assert dir != null;
+        this.dir = dir;
+    }
+
+    /**
+     * @return The cached script, or null if it is missing or was compiled from different content.
+     */
+    Script get(final String name, final String hash) {
+        assert name != null;
+        assert hash != null;
+
+        File file = fileFor(name);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC || in.readInt() != PlanCodec.VERSION || !BUILD.equals(in.readUTF())
+                || !hash.equals(in.readUTF())) {
+                log.debug("Stale compiled script: {}", file);
+                return null;
+            }
+
+            int[] lines = new int[in.readInt()];
+            CommandLine[] statements = new CommandLine[lines.length];
+            for (int i = 0; i < lines.length; i++) {
+                lines[i] = in.readInt();
+                statements[i] = PlanCodec.read(in);
+            }
+
+            log.debug("Loaded compiled script: {} from: {}", name, file);
+            return new Script(name, lines, statements);
+        }
+        catch (Exception e) {
+            log.warn("Failed to load compiled script: " + file, e);
+            return null;
+        }
+        finally {
+            Closer.close(in);
+        }
+    }
+
+    /**
+     * Store a script; scripts whose statements are not all {@link ExecutionPlan}s are not cached.
+     */
+    void put(final String hash, final Script script) {
+        assert hash != null;
+        assert script != null;
+
+        for (CommandLine statement : script.statements) {
+            if (!(statement instanceof ExecutionPlan)) {
+                log.debug("Not caching script: {}; statements are not plans", script.getName());
+                return;
+            }
+        }
+
+        File file = fileFor(script.getName());
+        File tmp = null;
+        DataOutputStream out = null;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Unable to create directory: " + dir);
+            }
+
+            // Write to a temporary file and rename, so a partial file is never seen
+            tmp = File.createTempFile("script", ".tmp", dir);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeInt(MAGIC);
+            out.writeInt(PlanCodec.VERSION);
+            out.writeUTF(BUILD);
+            out.writeUTF(hash);
+            out.writeInt(script.size());
+            for (int i = 0; i < script.size(); i++) {
+                out.writeInt(script.getLine(i));
+                PlanCodec.write(out, (ExecutionPlan) script.statements[i]);
+            }
+            out.close();
+            out = null;
+
+            if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+                throw new IOException("Unable to rename: " + tmp + " to: " + file);
+            }
+            tmp = null;
+
+            log.debug("Stored compiled script: {} to: {}", script.getName(), file);
+        }
+        catch (IOException e) {
+            log.warn("Failed to store compiled script: " + file, e);
+        }
+        finally {
+            Closer.close(out);
+            if (tmp != null) {
+                //noinspection ResultOfMethodCallIgnored
+                tmp.delete();
+            }
+        }
+    }
+
+    private static String loadBuild() {
+        Properties props = new Properties();
+        InputStream input = ScriptCache.class.getResourceAsStream(ScriptCache.class.getSimpleName() + ".properties");
+        if (input != null) {
+            try {
+                props.load(input);
+            }
+            catch (IOException e) {
+                LoggerFactory.getLogger(ScriptCache.class).warn("Failed to load build information", e);
+            }
+            finally {
+                Closer.close(input);
+            }
+        }
+        return props.getProperty("build", "unknown");
+    }
+
+    private File fileFor(final String name) {
+        try {
+            return new File(dir, digest(name.getBytes("UTF-8")) + SUFFIX);
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new Error(e);
+        }
+    }
+
+    static String digest(final byte[] content) {
+        assert content != null;
+
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new Error(e);
+        }
+
+        StringBuilder buff = new StringBuilder();
+        for (byte b : md.digest(content)) {
+            buff.append(Character.forDigit((b >> 4) & 0xF, 16));
+            buff.append(Character.forDigit(b & 0xF, 16));
+        }
+        return buff.toString();
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.execute;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonatype.gshell.event.EventManager;
+import org.sonatype.gshell.notification.ErrorNotification;
+import org.sonatype.gshell.parser.CommandLineParser;
+import org.sonatype.gshell.parser.CommandLineParser.CommandLine;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.shell.ShellHolder;
+import org.sonatype.gshell.util.io.Closer;
+import org.sonatype.gshell.util.io.Copier;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes scripts of command-lines in a single dispatch context.
+ * <p/>
+ * Scripts may either be compiled up front into a {@link Script}, which parses every line before any is executed, or
+ * streamed, which parses and executes one line at a time so large generated scripts are never held in memory.  In
+ * both cases the shell is bound once for the whole script, and failures are reported as a {@link ScriptException}
+ * carrying the script name and line number.
+ * <p/>
+ * Scripts of a known size up to {@link #COMPILE_LIMIT} are compiled, larger ones (or ones of unknown size) are
+ * streamed; see {@link #execute(Shell, String, Reader, long)}.
+ * <p/>
+ * Compiled scripts of files may also be kept in a cache directory, keyed by the digest of their content, so that
+ * unchanged scripts (such as profile scripts, loaded at every startup) are not parsed again.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+@Singleton
+public class ScriptEngine
+{
+    /**
+     * The largest script, in bytes, which is compiled rather than streamed.
+     */
+    public static final long COMPILE_LIMIT = 1024 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final CommandLineParser parser;
+
+    private final CommandExecutor executor;
+
+    private EventManager events;
+
+    @Inject
+    public ScriptEngine(final CommandLineParser parser, final CommandExecutor executor) {
+        assert parser != null;
+        this.parser = parser;
+        assert executor != null;
+        this.executor = executor;
+    }
+
+    /**
+     * Events held back by the {@link org.sonatype.gshell.event.EventPolicy} are delivered after each line.
+     */
+    @Inject
+    public void setEventManager(final EventManager events) {
+        this.events = events;
+    }
+
+    /**
+     * Compile a script file, using the plan stored in the given cache directory if the file has not changed since.
+     */
+    public Script compile(final File file, final File cacheDir) throws IOException, ScriptException {
+        assert file != null;
+        assert cacheDir != null;
+
+        ByteArrayOutputStream buff = new ByteArrayOutputStream();
+        InputStream input = new FileInputStream(file);
+        try {
+            Copier.copy(input, buff);
+        }
+        finally {
+            Closer.close(input);
+        }
+        byte[] content = buff.toByteArray();
+
+        String name = file.getPath();
+        String hash = ScriptCache.digest(content);
+        ScriptCache cache = new ScriptCache(cacheDir);
+
+        Script script = cache.get(name, hash);
+        if (script == null) {
+            script = compile(name, new InputStreamReader(new ByteArrayInputStream(content)));
+            cache.put(hash, script);
+        }
+        return script;
+    }
+
+    /**
+     * Parse all lines of a script; blank lines are dropped.
+     */
+    public Script compile(final String name, final Reader source) throws IOException, ScriptException {
+        assert name != null;
+        assert source != null;
+
+        List<Integer> lines = new ArrayList<Integer>();
+        List<CommandLine> statements = new ArrayList<CommandLine>();
+
+        BufferedReader reader = buffer(source);
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            if (line.trim().length() == 0) {
+                continue;
+            }
+            lines.add(number);
+            statements.add(parse(name, number, line));
+        }
+
+        int[] numbers = new int[lines.size()];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = lines.get(i);
+        }
+
+        log.debug("Compiled script: {} ({} statements)", name, numbers.length);
+
+        return new Script(name, numbers, statements.toArray(new CommandLine[statements.size()]));
+    }
+
+    /**
+     * Execute a compiled script.
+     *
+     * @return The result of the last statement, or null if the script is empty.
+     */
+    public Object execute(final Shell shell, final Script script) throws Exception {
+        assert shell != null;
+        assert script != null;
+
+        final Shell lastShell = ShellHolder.set(shell);
+        try {
+            Object result = null;
+            for (int i = 0; i < script.statements.length; i++) {
+                result = execute(shell, script.name, script.lines[i], script.statements[i]);
+            }
+            return result;
+        }
+        finally {
+            ShellHolder.set(lastShell);
+        }
+    }
+
+    /**
+     * Parse and execute a script one line at a time; only the current line is held in memory.
+     *
+     * @return The result of the last statement, or null if the script is empty.
+     */
+    public Object execute(final Shell shell, final String name, final Reader source) throws Exception {
+        assert shell != null;
+        assert name != null;
+        assert source != null;
+
+        log.debug("Executing script: {}", name);
+
+        final Shell lastShell = ShellHolder.set(shell);
+        try {
+            BufferedReader reader = buffer(source);
+            Object result = null;
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.trim().length() == 0) {
+                    continue;
+                }
+                result = execute(shell, name, number, parse(name, number, line));
+            }
+            return result;
+        }
+        finally {
+            ShellHolder.set(lastShell);
+        }
+    }
+
+    /**
+     * Execute a script, compiling it first if its size is known and no more than {@link #COMPILE_LIMIT}, and streaming
+     * it otherwise.  A compiled script runs only once every line has parsed, a streamed one runs up to the first line
+     * which fails.
+     *
+     * @param size  The size of the script in bytes, or -1 if unknown.
+     * @return The result of the last statement, or null if the script is empty.
+     */
+    public Object execute(final Shell shell, final String name, final Reader source, final long size) throws Exception {
+        if (size >= 0 && size <= COMPILE_LIMIT) {
+            return execute(shell, compile(name, source));
+        }
+        return execute(shell, name, source);
+    }
+
+    private static BufferedReader buffer(final Reader source) {
+        return source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+    }
+
+    private CommandLine parse(final String name, final int number, final String line) throws ScriptException {
+        try {
+            return parser.parse(line);
+        }
+        catch (Exception e) {
+            throw new ScriptException(name, number, e);
+        }
+    }
+
+    private Object execute(final Shell shell, final String name, final int number, final CommandLine cl)
+        throws ScriptException
+    {
+        try {
+            return cl.execute(shell, executor);
+        }
+        catch (ErrorNotification n) {
+            // Decode the error notification, same as a single command-line
+            Throwable cause = n.getCause();
+
+            if (cause instanceof Exception) {
+                throw new ScriptException(name, number, cause);
+            }
+            else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            else {
+                throw n;
+            }
+        }
+        catch (Exception e) {
+            throw new ScriptException(name, number, e);
+        }
+        finally {
+            if (events != null) {
+                events.flush();
+            }
+        }
+    }
+
+    /**
+     * A compiled script.
+     */
+    public static final class Script
+    {
+        private final String name;
+
+        private final int[] lines;
+
+        final CommandLine[] statements;
+
+        Script(final String name, final int[] lines, final CommandLine[] statements) {
+            this.name = name;
+            this.lines = lines;
+            this.statements = statements;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int size() {
+            return statements.length;
+        }
+
+        /**
+         * @return The source line number of the given statement.
+         */
+        public int getLine(final int index) {
+            return lines[index];
+        }
+    }
+}
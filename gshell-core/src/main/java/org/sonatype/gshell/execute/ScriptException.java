@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.execute;
+
+/**
+ * Thrown to indicate that a line of a script failed to parse or execute.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class ScriptException
+    extends Exception
+{
+    ///CLOVER:OFF
+
+    private static final long serialVersionUID = 1;
+
+    private final String name;
+
+    private final int line;
+
+    public ScriptException(final String name, final int line, final Throwable cause) {
+        super(name + ":" + line + ": " + cause.getMessage(), cause);
+        this.name = name;
+        this.line = line;
+    }
+
+    /**
+     * @return The name of the script which failed.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The 1-based number of the line which failed.
+     */
+    public int getLine() {
+        return line;
+    }
+}
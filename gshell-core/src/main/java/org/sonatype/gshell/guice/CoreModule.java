@@ -48,11 +48,14 @@ import org.sonatype.gshell.logging.LevelNameCompleter;
 import org.sonatype.gshell.logging.LoggerNameCompleter;
 import org.sonatype.gshell.parser.CommandLineParser;
 import org.sonatype.gshell.parser.CommandLineParserImpl;
+import org.sonatype.gshell.parser.impl.eval.EvaluatorFactory;
 import org.sonatype.gshell.shell.Shell;
 import org.sonatype.gshell.shell.ShellHolder;
+import org.sonatype.gshell.variables.VariableEventPolicy;
 import org.sonatype.gshell.variables.VariableNameCompleter;
 import org.sonatype.gshell.variables.Variables;
 
+import javax.inject.Singleton;
 import java.io.IOException;
 
 import static com.google.inject.name.Names.named;
@@ -68,7 +71,6 @@ public class CoreModule
 {
     @Override
     protected void configure() {
-        bind(EventManager.class).to(EventManagerImpl.class);
         bind(AliasRegistry.class).to(AliasRegistryImpl.class);
         bind(CommandRegistry.class).to(CommandRegistryImpl.class);
         bind(CommandRegistrar.class).to(CommandRegistrarImpl.class);
@@ -87,6 +89,17 @@ public class CoreModule
         bind(Completer.class).annotatedWith(named("meta-help-page-name")).to(MetaHelpPageNameCompleter.class);
         bind(Completer.class).annotatedWith(named("level-name")).to(LevelNameCompleter.class);
         bind(Completer.class).annotatedWith(named("logger-name")).to(LoggerNameCompleter.class);
+
+        // The evaluator is shared, not created by the injector; let it track variable changes
+        requestInjection(EvaluatorFactory.get());
+    }
+
+    @Provides
+    @Singleton
+    private EventManager provideEventManager() {
+        EventManagerImpl events = new EventManagerImpl();
+        events.setPolicy(new VariableEventPolicy());
+        return events;
     }
 
     @Provides
@@ -58,7 +58,7 @@ public class MetaHelpPageNameCompleter
         }
 
         // Register for updates to alias registrations
-        events.addListener(new EventListener()
+        EventListener listener = new EventListener()
         {
             public void onEvent(final EventObject event) throws Exception {
                 if (event instanceof MetaHelpPageAddedEvent) {
@@ -66,7 +66,8 @@ public class MetaHelpPageNameCompleter
                     delegate.getStrings().add(targetEvent.getDescriptor().getName());
                 }
             }
-        });
+        };
+        events.addListener(listener, MetaHelpPageAddedEvent.class);
 
         initialized = true;
     }
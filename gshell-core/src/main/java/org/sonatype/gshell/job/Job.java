@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.job;
+
+import org.slf4j.MDC;
+import org.sonatype.gshell.notification.ErrorNotification;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.shell.ShellHolder;
+import org.sonatype.gshell.util.io.StreamJack;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A command-line executing in the background.
+ * <p/>
+ * The thread running a job has its {@link ShellHolder}, {@link StreamJack} registration and logging {@link MDC}
+ * set up for the job (and cleared after), so jobs sharing a pooled thread never see each others state.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class Job
+{
+    public static enum State
+    {
+        QUEUED,
+        RUNNING,
+        DONE,
+        FAILED,
+        CANCELLED
+    }
+
+    private final int id;
+
+    private final String command;
+
+    private final Shell shell;
+
+    private final Callable<?> task;
+
+    private final Map context;
+
+    private final FutureTask<Object> future;
+
+    private volatile boolean started;
+
+    Job(final int id, final String command, final Shell shell, final Callable<?> task) {
+        assert command != null;
+        assert shell != null;
+        assert task != null;
+        this.id = id;
+        this.command = command;
+        this.shell = shell;
+        this.task = task;
+
+        // Capture the logging context of the submitting thread
+        this.context = MDC.getCopyOfContextMap();
+
+        this.future = new FutureTask<Object>(new Callable<Object>()
+        {
+            public Object call() throws Exception {
+                return run();
+            }
+        });
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public Shell getShell() {
+        return shell;
+    }
+
+    FutureTask<Object> getFuture() {
+        return future;
+    }
+
+    public State getState() {
+        if (future.isCancelled()) {
+            return State.CANCELLED;
+        }
+        if (future.isDone()) {
+            return getFailure() == null ? State.DONE : State.FAILED;
+        }
+        return started ? State.RUNNING : State.QUEUED;
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Cancel the job, interrupting it if running.
+     *
+     * @return False if the job had already completed.
+     */
+    public boolean cancel() {
+        return future.cancel(true);
+    }
+
+    /**
+     * Wait for the job to complete.
+     *
+     * @return The result of the job.
+     * @throws CancellationException The job was cancelled.
+     * @throws Exception             The job failed; errors are rethrown as is.
+     */
+    public Object await() throws Exception {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Wait at most the given time for the job to complete.
+     *
+     * @throws java.util.concurrent.TimeoutException The job did not complete in time.
+     * @see #await()
+     */
+    public Object await(final long timeout, final TimeUnit unit) throws Exception {
+        try {
+            return future.get(timeout, unit);
+        }
+        catch (ExecutionException e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Returns the result of a completed job, or null.
+     */
+    public Object getResult() {
+        if (getState() != State.DONE) {
+            return null;
+        }
+        try {
+            return future.get();
+        }
+        catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the failure of a completed job, or null.  Never throws, even if the job failed with an {@link Error}.
+     */
+    public Throwable getFailure() {
+        if (!future.isDone() || future.isCancelled()) {
+            return null;
+        }
+        try {
+            future.get();
+            return null;
+        }
+        catch (ExecutionException e) {
+            return unwrap(e);
+        }
+        catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Throwable unwrap(final ExecutionException e) {
+        Throwable cause = e.getCause();
+
+        // Decode the error notification
+        if (cause instanceof ErrorNotification && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        return cause != null ? cause : e;
+    }
+
+    private static Exception rethrow(final ExecutionException e) {
+        Throwable cause = unwrap(e);
+
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return e;
+    }
+
+    private Object run() throws Exception {
+        started = true;
+
+        final Shell lastShell = ShellHolder.set(shell);
+        if (context != null) {
+            MDC.setContextMap(context);
+        }
+        MDC.put(Job.class.getName(), String.valueOf(id));
+        StreamJack.maybeInstall(shell.getIo().streams);
+
+        try {
+            return task.call();
+        }
+        finally {
+            shell.getIo().flush();
+            StreamJack.deregister();
+            MDC.clear();
+            ShellHolder.set(lastShell);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[" + id + "] " + getState() + " " + command;
+    }
+}
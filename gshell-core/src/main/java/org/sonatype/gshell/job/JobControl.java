@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.job;
+
+/**
+ * Implemented by {@link org.sonatype.gshell.shell.Shell}s which can run background {@link Job}s.
+ * <p/>
+ * Each shell has its own {@link JobManager}, so that shells running in the same JVM (such as remote sessions) never
+ * see each others jobs.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public interface JobControl
+{
+    /**
+     * Returns the jobs of this shell, or null if it can not run background jobs.
+     */
+    JobManager getJobManager();
+}
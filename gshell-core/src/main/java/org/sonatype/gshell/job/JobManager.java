@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.job;
+
+import org.sonatype.gshell.shell.Shell;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * Manages background {@link Job}s.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public interface JobManager
+{
+    /**
+     * Submit a task to execute in the background.
+     *
+     * @param shell   The shell the job executes with.
+     * @param command Description of the job, normally the command-line.
+     * @param task    The task to execute.
+     * @return The submitted job.
+     */
+    Job submit(Shell shell, String command, Callable<?> task);
+
+    /**
+     * Returns the job with the given id, or null.
+     */
+    Job getJob(int id);
+
+    /**
+     * Returns the most recently submitted job, or null.
+     */
+    Job getCurrentJob();
+
+    /**
+     * Returns all known jobs, ordered by id.
+     */
+    Collection<Job> getJobs();
+
+    /**
+     * Forget about a job; does not cancel it.
+     */
+    void remove(Job job);
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonatype.gshell.shell.Shell;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.sonatype.gshell.variables.VariableNames.SHELL_JOBS_THREADS;
+
+/**
+ * The default {@link JobManager}; each {@link JobControl} shell owns one.
+ * <p/>
+ * Jobs execute on a bounded pool of daemon threads; jobs submitted while all threads are busy are queued.  The
+ * pool is created when the first job is submitted, sized by
+ * {@link org.sonatype.gshell.variables.VariableNames#SHELL_JOBS_THREADS}, and shut down by {@link #close}; or a
+ * custom {@link ExecutorService} may be configured.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class JobManagerImpl
+    implements JobManager
+{
+    public static final int DEFAULT_THREADS = 4;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Map<Integer, Job> jobs = new TreeMap<Integer, Job>();
+
+    private Job current;
+
+    private ExecutorService executor;
+
+    /**
+     * True if {@link #executor} was created here, and so needs to be shut down here.
+     */
+    private boolean owned;
+
+    public synchronized void setExecutorService(final ExecutorService executor) {
+        assert executor != null;
+        this.executor = executor;
+        this.owned = false;
+    }
+
+    public synchronized ExecutorService getExecutorService() {
+        return executor;
+    }
+
+    private ExecutorService getExecutorService(final Shell shell) {
+        if (executor == null) {
+            int threads = shell.getVariables().get(SHELL_JOBS_THREADS, Integer.class, DEFAULT_THREADS);
+            log.debug("Creating job executor with {} threads", threads);
+            executor = Executors.newFixedThreadPool(threads, new JobThreadFactory());
+            owned = true;
+        }
+        return executor;
+    }
+
+    public synchronized Job submit(final Shell shell, final String command, final Callable<?> task) {
+        assert shell != null;
+        assert command != null;
+        assert task != null;
+
+        // Use the lowest free id, like most shells
+        int id = 1;
+        while (jobs.containsKey(id)) {
+            id++;
+        }
+
+        Job job = new Job(id, command, shell, task);
+        jobs.put(id, job);
+
+        try {
+            getExecutorService(shell).execute(job.getFuture());
+        }
+        catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw e;
+        }
+
+        log.debug("Submitted job: {}", job);
+        current = job;
+
+        return job;
+    }
+
+    public synchronized Job getJob(final int id) {
+        return jobs.get(id);
+    }
+
+    public synchronized Job getCurrentJob() {
+        return current;
+    }
+
+    public synchronized Collection<Job> getJobs() {
+        return new ArrayList<Job>(jobs.values());
+    }
+
+    public synchronized void remove(final Job job) {
+        assert job != null;
+
+        if (jobs.get(job.getId()) == job) {
+            jobs.remove(job.getId());
+        }
+        if (current == job) {
+            // Fall back to the most recent remaining job
+            current = null;
+            for (Job remaining : jobs.values()) {
+                current = remaining;
+            }
+        }
+    }
+
+    /**
+     * Cancel all jobs, and shut down the threads created to run them.
+     */
+    public synchronized void close() {
+        for (Job job : jobs.values()) {
+            job.cancel();
+        }
+        jobs.clear();
+        current = null;
+
+        if (owned) {
+            log.debug("Shutting down job executor");
+            executor.shutdownNow();
+            executor = null;
+            owned = false;
+        }
+    }
+
+    private static class JobThreadFactory
+        implements ThreadFactory
+    {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        public Thread newThread(final Runnable task) {
+            Thread thread = new Thread(task, "job-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
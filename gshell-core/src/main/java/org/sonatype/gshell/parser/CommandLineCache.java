@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser;
+
+import org.sonatype.gshell.parser.CommandLineParser.CommandLine;
+import org.sonatype.gshell.util.LruCache;
+
+/**
+ * Bounded LRU cache of parsed {@link CommandLine} instances, keyed by the raw line.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class CommandLineCache
+    extends LruCache<String, CommandLine>
+{
+    public static final int DEFAULT_SIZE = 256;
+
+    public CommandLineCache(final int maxSize) {
+        super(maxSize);
+    }
+
+    public CommandLineCache() {
+        this(DEFAULT_SIZE);
+    }
+}
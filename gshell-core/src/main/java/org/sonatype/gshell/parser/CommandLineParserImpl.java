@@ -17,19 +17,32 @@ package org.sonatype.gshell.parser;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.event.EventListener;
+import org.sonatype.gshell.event.EventManager;
 import org.sonatype.gshell.util.io.Closer;
 import org.sonatype.gshell.parser.impl.ASTCommandLine;
 import org.sonatype.gshell.parser.impl.Parser;
-import org.sonatype.gshell.parser.impl.visitor.ExecutingVisitor;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan;
+import org.sonatype.gshell.parser.impl.visitor.CompilingVisitor;
 import org.sonatype.gshell.parser.impl.visitor.LoggingVisitor;
 import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.shell.ShellHolder;
+import org.sonatype.gshell.variables.VariableSetEvent;
+import org.sonatype.gshell.variables.VariableUnsetEvent;
 
+import javax.inject.Inject;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.EventObject;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.sonatype.gshell.variables.VariableNames.SHELL_PARSER_CACHE_SIZE;
 
 /**
  * The default {@link CommandLineParser} component.
+ * <p/>
+ * Safe for use by many threads at once; each parse borrows a {@link Parser} from an internal pool.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.0
@@ -39,19 +52,100 @@ public class CommandLineParserImpl
 {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    private final Parser parser = new Parser();
+    /**
+     * Idle parsers; {@link Parser} is stateful so each one is only ever used by a single thread at a time.
+     */
+    private final Queue<Parser> parsers = new ConcurrentLinkedQueue<Parser>();
+
+    private final CommandLineCache cache = new CommandLineCache();
+
+    /**
+     * Set when the cache size needs to be (re-)read from the shell variables.
+     */
+    private volatile boolean cacheSizeChanged = true;
+
+    /**
+     * Track changes to {@link org.sonatype.gshell.variables.VariableNames#SHELL_PARSER_CACHE_SIZE}, so that the
+     * variable is only read again once it has been changed.
+     *
+     * @since 2.6.6
+     */
+    @Inject
+    public void setEventManager(final EventManager events) {
+        assert events != null;
+
+        EventListener listener = new EventListener()
+        {
+            public void onEvent(final EventObject event) throws Exception {
+                String name = event instanceof VariableSetEvent
+                    ? ((VariableSetEvent) event).getName()
+                    : ((VariableUnsetEvent) event).getName();
+
+                if (SHELL_PARSER_CACHE_SIZE.equals(name)) {
+                    cacheSizeChanged = true;
+                }
+            }
+        };
+        events.addListener(listener, VariableSetEvent.class);
+        events.addListener(listener, VariableUnsetEvent.class);
+    }
+
+    /**
+     * @since 2.6.6
+     */
+    public CommandLineCache getCache() {
+        return cache;
+    }
 
     public CommandLine parse(final String line) throws Exception {
         assert line != null;
 
+        if (cacheSizeChanged) {
+            Shell shell = ShellHolder.get(true);
+            if (shell != null) {
+                cacheSizeChanged = false;
+                Integer size = shell.getVariables().get(SHELL_PARSER_CACHE_SIZE, Integer.class, CommandLineCache.DEFAULT_SIZE);
+                cache.setMaxSize(size);
+            }
+        }
+
+        CommandLine cl = cache.get(line);
+        if (cl != null) {
+            log.trace("Using cached command-line for: {}", line);
+            return cl;
+        }
+
+        cl = build(line);
+        cache.put(line, cl);
+
+        return cl;
+    }
+
+    private Parser borrowParser() {
+        Parser parser = parsers.poll();
+        if (parser == null) {
+            log.trace("Creating new parser");
+            parser = new Parser();
+        }
+        return parser;
+    }
+
+    private void releaseParser(final Parser parser) {
+        assert parser != null;
+        parsers.offer(parser);
+    }
+
+    private CommandLine build(final String line) throws Exception {
         log.trace("Building command-line for: {}", line);
 
         Reader reader = new StringReader(line);
+        Parser parser = borrowParser();
         final ASTCommandLine root;
         try {
             root = parser.parse(reader);
         }
         finally {
+            releaseParser(parser);
             Closer.close(reader);
         }
 
@@ -60,12 +154,10 @@ public class CommandLineParserImpl
             root.jjtAccept(new LoggingVisitor(log), null);
         }
 
-        return new CommandLine()
-        {
-            public Object execute(final Shell shell, final CommandExecutor executor) throws Exception {
-                ExecutingVisitor visitor = new ExecutingVisitor(shell, executor);
-                return root.jjtAccept(visitor, null);
-            }
-        };
+        // Compile once, so that executing (possibly many times) does not need to walk the tree
+        ExecutionPlan plan = new CompilingVisitor().compile(root);
+        log.trace("Compiled: {}", plan);
+
+        return plan;
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl;
+
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Statement;
+import org.sonatype.gshell.parser.impl.visitor.CompilingVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a command or pipeline followed by <tt>&</tt>.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class ASTBackground
+    extends SimpleNode
+{
+    private Statement statement;
+
+    public ASTBackground(final int id) {
+        super(id);
+    }
+
+    public ASTBackground(final Parser p, final int id) {
+        super(p, id);
+    }
+
+    /**
+     * Returns the compiled job; compiled the first time it is needed and kept with the parse tree.
+     */
+    public synchronized Statement getStatement() {
+        if (statement == null) {
+            List<Statement> statements = new ArrayList<Statement>(1);
+            new CompilingVisitor().visit(this, statements);
+            statement = statements.get(0);
+        }
+        return statement;
+    }
+
+    @Override
+    public Object jjtAccept(final ParserVisitor visitor, final Object data) {
+        return visitor.visit(this, data);
+    }
+}
@@ -50,6 +50,6 @@ public class DefaultEvaluator
             return expression;
         }
 
-        return parser.parse(expression);
+        return parser.evaluate(expression);
     }
 }
\ No newline at end of file
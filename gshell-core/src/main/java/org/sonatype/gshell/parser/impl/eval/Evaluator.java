@@ -25,5 +25,9 @@ package org.sonatype.gshell.parser.impl.eval;
  */
 public interface Evaluator
 {
+    /**
+     * Evaluate an expression.  If the expression is a single <tt>${...}</tt> the result may be of any type, otherwise
+     * it is a string.
+     */
     Object eval(String expression) throws Exception;
 }
\ No newline at end of file
@@ -21,16 +21,30 @@ import org.apache.commons.jexl.JexlContext;
 import org.apache.commons.jexl.resolver.FlatResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonatype.gshell.event.EventListener;
+import org.sonatype.gshell.event.EventManager;
+import org.sonatype.gshell.shell.Shell;
 import org.sonatype.gshell.shell.ShellHolder;
 import org.sonatype.gshell.util.ReplacementParser;
+import org.sonatype.gshell.variables.VariableSetEvent;
+import org.sonatype.gshell.variables.VariableUnsetEvent;
 import org.sonatype.gshell.variables.Variables;
 
+import javax.inject.Inject;
 import java.util.Collection;
+import java.util.EventObject;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.sonatype.gshell.variables.VariableNames.SHELL_EVAL_CACHE_SIZE;
 
 /**
  * Uses Commons Jexl to evaluate expressions.
+ * <p/>
+ * Each thread reuses a single context, bound to the variables of the current shell on each evaluation, and has its
+ * own cache of compiled expressions, see {@link #getCache}.  JEXL 1.x does not document compiled expressions as safe
+ * for concurrent evaluation, so they are never shared between threads.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.0
@@ -48,11 +62,23 @@ public class JexlEvaluator
 
             log.debug("Evaluating: {}", key);
 
-            JexlContext ctx = new Context();
-            Expression expr = ExpressionFactory.createExpression(key);
-            expr.addPostResolver(resolver);
+            Context ctx = contexts.get();
+            Expression expr = ctx.cache.get(key);
+            if (expr == null) {
+                expr = ExpressionFactory.createExpression(key);
+                expr.addPostResolver(resolver);
+                ctx.cache.put(key, expr);
+            }
 
-            Object result = expr.evaluate(ctx);
+            Variables last = ctx.vars.bind(ShellHolder.get().getVariables());
+            Object result;
+            try {
+                result = expr.evaluate(ctx);
+            }
+            finally {
+                // Restore for nested evaluations, or release the variables of a shell which may be closed
+                ctx.vars.bind(last);
+            }
 
             log.debug("Result: {}", result);
 
@@ -62,6 +88,57 @@ public class JexlEvaluator
 
     private final FlatResolver resolver = new FlatResolver(true);
 
+    /**
+     * Incremented when {@link org.sonatype.gshell.variables.VariableNames#SHELL_EVAL_CACHE_SIZE} changes.
+     */
+    private final AtomicInteger cacheSizeChanges = new AtomicInteger();
+
+    private volatile boolean tracked;
+
+    private final ThreadLocal<Context> contexts = new ThreadLocal<Context>()
+    {
+        @Override
+        protected Context initialValue() {
+            return new Context();
+        }
+    };
+
+    /**
+     * Track changes to {@link org.sonatype.gshell.variables.VariableNames#SHELL_EVAL_CACHE_SIZE}, so that the
+     * variable is only read again once it has been changed.  Without this it is read on each evaluation.
+     *
+     * @since 2.6.6
+     */
+    @Inject
+    public void setEventManager(final EventManager events) {
+        assert events != null;
+
+        EventListener listener = new EventListener()
+        {
+            public void onEvent(final EventObject event) throws Exception {
+                String name = event instanceof VariableSetEvent
+                    ? ((VariableSetEvent) event).getName()
+                    : ((VariableUnsetEvent) event).getName();
+
+                if (SHELL_EVAL_CACHE_SIZE.equals(name)) {
+                    cacheSizeChanges.incrementAndGet();
+                }
+            }
+        };
+        events.addListener(listener, VariableSetEvent.class);
+        events.addListener(listener, VariableUnsetEvent.class);
+        tracked = true;
+    }
+
+    /**
+     * Returns the expression cache of the current thread.
+     *
+     * @since 2.6.6
+     */
+    public ExpressionCache getCache() {
+        return contexts.get().cache;
+    }
+
     public Object eval(String expression) throws Exception {
         // expression could be null
 
@@ -70,7 +147,18 @@ public class JexlEvaluator
             return expression;
         }
 
-        return parser.parse(expression);
+        Context ctx = contexts.get();
+        int changes = cacheSizeChanges.get();
+        if (!tracked || ctx.cacheSizeChanges != changes) {
+            Shell shell = ShellHolder.get(true);
+            if (shell != null) {
+                ctx.cacheSizeChanges = changes;
+                Integer size = shell.getVariables().get(SHELL_EVAL_CACHE_SIZE, Integer.class, ExpressionCache.DEFAULT_SIZE);
+                ctx.cache.setMaxSize(size);
+            }
+        }
+
+        return parser.evaluate(expression);
     }
 
     private static class Context
@@ -78,6 +166,13 @@ public class JexlEvaluator
     {
         private final ContextVariables vars = new ContextVariables();
 
+        private final ExpressionCache cache = new ExpressionCache();
+
+        /**
+         * The value of {@link JexlEvaluator#cacheSizeChanges} when the cache size was last read.
+         */
+        private int cacheSizeChanges = -1;
+
         public void setVars(final Map map) {
             throw new UnsupportedOperationException();
         }
@@ -90,7 +185,16 @@ public class JexlEvaluator
     private static class ContextVariables
         implements Map<String, Object>
     {
-        private final Variables vars = ShellHolder.get().getVariables();
+        private Variables vars;
+
+        /**
+         * @return The previously bound variables.
+         */
+        public Variables bind(final Variables vars) {
+            Variables last = this.vars;
+            this.vars = vars;
+            return last;
+        }
 
         public Object get(final Object key) {
             assert key != null;
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl.plan;
+
+/**
+ * Reusable per-thread scratch space for assembling command arguments.
+ * <p/>
+ * Arguments are collected into a buffer which is retained by the thread, so the only allocation left when building a
+ * command invocation is the exact-size array handed to the command.  Buffers must be {@link #release released} once
+ * the arguments have been taken; if the buffer of the thread is still in use (for example when an expression
+ * executes another command) a temporary buffer is handed out instead.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public final class ArgumentBuffer
+{
+    private static final int INITIAL_SIZE = 16;
+
+    /**
+     * Buffers larger than this are not retained, to avoid pinning memory after an unusually long command-line.
+     */
+    private static final int MAX_RETAINED_SIZE = 1024;
+
+    private static final ThreadLocal<ArgumentBuffer> buffers = new ThreadLocal<ArgumentBuffer>()
+    {
+        @Override
+        protected ArgumentBuffer initialValue() {
+            return new ArgumentBuffer();
+        }
+    };
+
+    private final StringBuilder text = new StringBuilder();
+
+    private Object[] values = new Object[INITIAL_SIZE];
+
+    private int size;
+
+    private boolean busy;
+
+    private ArgumentBuffer() {
+        // empty
+    }
+
+    public static ArgumentBuffer acquire() {
+        ArgumentBuffer buffer = buffers.get();
+        if (buffer.busy) {
+            return new ArgumentBuffer();
+        }
+        buffer.busy = true;
+        return buffer;
+    }
+
+    public void release() {
+        // Drop references so values do not outlive the command
+        for (int i = 0; i < size; i++) {
+            values[i] = null;
+        }
+        size = 0;
+        text.setLength(0);
+
+        if (values.length > MAX_RETAINED_SIZE) {
+            values = new Object[INITIAL_SIZE];
+        }
+        if (text.capacity() > MAX_RETAINED_SIZE) {
+            text.trimToSize();
+        }
+        busy = false;
+    }
+
+    public void add(final Object value) {
+        if (size == values.length) {
+            Object[] tmp = new Object[size * 2];
+            System.arraycopy(values, 0, tmp, 0, size);
+            values = tmp;
+        }
+        values[size++] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Object get(final int index) {
+        assert index < size;
+        return values[index];
+    }
+
+    /**
+     * Scratch space for joining the segments of a single argument.
+     */
+    public StringBuilder text() {
+        return text;
+    }
+
+    /**
+     * Copy the values, starting at the given index, into a new array of exactly the right size.
+     */
+    public Object[] toArray(final int from) {
+        assert from <= size;
+
+        Object[] result = new Object[size - from];
+        System.arraycopy(values, from, result, 0, result.length);
+        return result;
+    }
+}
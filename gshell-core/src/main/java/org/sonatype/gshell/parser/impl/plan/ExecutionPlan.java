@@ -0,0 +1,629 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl.plan;
+
+import org.slf4j.MDC;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.execute.CommandThreads;
+import org.sonatype.gshell.job.Job;
+import org.sonatype.gshell.job.JobControl;
+import org.sonatype.gshell.job.JobManager;
+import org.sonatype.gshell.notification.ErrorNotification;
+import org.sonatype.gshell.parser.CommandLineParser.CommandLine;
+import org.sonatype.gshell.parser.impl.eval.Evaluator;
+import org.sonatype.gshell.parser.impl.eval.EvaluatorFactory;
+import org.sonatype.gshell.shell.DelegatingShell;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.shell.ShellHolder;
+import org.sonatype.gshell.util.Strings;
+import org.sonatype.gshell.util.io.BytePipe;
+import org.sonatype.gshell.util.io.StreamJack;
+import org.sonatype.gshell.util.io.StreamSet;
+import org.sonatype.gshell.variables.Variables;
+import org.sonatype.gshell.variables.VariablesImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Flat, immutable execution plan for a parsed command-line.
+ * <p/>
+ * A plan is a sequence of {@link Statement}s (one per <tt>;</tt> separated command, {@link Pipeline} or
+ * {@link Background} job); each
+ * {@link Command} is a sequence of {@link Argument}s made up of literal and evaluated segments.  Plans are built once by
+ * {@link org.sonatype.gshell.parser.impl.visitor.CompilingVisitor} and may be executed any number of times, from
+ * any number of threads.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class ExecutionPlan
+    implements CommandLine
+{
+    private static final Object[] NO_ARGS = {};
+
+    private final Statement[] statements;
+
+    public ExecutionPlan(final Statement[] statements) {
+        assert statements != null;
+        this.statements = statements;
+    }
+
+    public Statement[] getStatements() {
+        return statements;
+    }
+
+    public Object execute(final Shell shell, final CommandExecutor executor) throws Exception {
+        assert shell != null;
+        assert executor != null;
+
+        Evaluator evaluator = EvaluatorFactory.get();
+
+        // Execute each statement in serial, the result is from the last statement
+        Object result = null;
+        for (Statement statement : statements) {
+            result = statement.execute(shell, executor, evaluator);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.asList(statements).toString();
+    }
+
+    /**
+     * An executable element of a plan.
+     */
+    public static interface Statement
+    {
+        Object execute(Shell shell, CommandExecutor executor, Evaluator evaluator) throws Exception;
+    }
+
+    /**
+     * A single command invocation; the first argument is the command name/path.
+     */
+    public static class Command
+        implements Statement
+    {
+        private final Argument[] arguments;
+
+        /**
+         * Pre-computed path, when the first argument is constant.
+         */
+        private final String path;
+
+        /**
+         * Pre-computed arguments, when all arguments are constant.
+         */
+        private final Object[] args;
+
+        public Command(final Argument[] arguments) {
+            assert arguments != null;
+            assert arguments.length != 0;
+            this.arguments = arguments;
+
+            boolean constant = true;
+            for (Argument argument : arguments) {
+                if (!argument.isConstant()) {
+                    constant = false;
+                    break;
+                }
+            }
+
+            if (constant) {
+                path = arguments[0].getConstant();
+                args = new Object[arguments.length - 1];
+                for (int i = 1; i < arguments.length; i++) {
+                    args[i - 1] = arguments[i].getConstant();
+                }
+            }
+            else {
+                path = null;
+                args = null;
+            }
+        }
+
+        public Argument[] getArguments() {
+            return arguments;
+        }
+
+        public Object execute(final Shell shell, final CommandExecutor executor, final Evaluator evaluator) throws Exception {
+            String path = this.path;
+            Object[] args;
+
+            if (path != null) {
+                // Commands are free to mangle their arguments, so hand out a copy
+                args = this.args.length == 0 ? NO_ARGS : this.args.clone();
+            }
+            else {
+                ArgumentBuffer buffer = ArgumentBuffer.acquire();
+                try {
+                    for (Argument argument : arguments) {
+                        Object value = argument.evaluateObject(evaluator, buffer.text());
+                        // Empty results are not arguments
+                        if (!(value instanceof String) || ((String) value).length() != 0) {
+                            buffer.add(value);
+                        }
+                    }
+
+                    if (buffer.size() == 0) {
+                        return null;
+                    }
+
+                    path = String.valueOf(buffer.get(0));
+                    args = buffer.size() == 1 ? NO_ARGS : buffer.toArray(1);
+                }
+                finally {
+                    buffer.release();
+                }
+            }
+
+            try {
+                return executor.execute(shell, path, args);
+            }
+            catch (Exception e) {
+                throw new ErrorNotification("Shell execution failed; path=" + path + "; args=" + Strings.join(args, ", "), e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return Strings.join(arguments, " ");
+        }
+    }
+
+    /**
+     * Commands connected by <tt>|</tt>.
+     * <p/>
+     * Each stage runs concurrently on a {@link CommandThreads} thread (the last on the calling thread) with its output
+     * connected to the input of the next stage through a bounded {@link BytePipe}, so a fast producer blocks on a slow
+     * consumer.
+     * Once a stage stops reading, writes from the previous stage fail with an unchecked exception (PrintStream and
+     * PrintWriter would otherwise swallow the error), which stops that stage much like <tt>SIGPIPE</tt> would.
+     * The result is that of the last stage.
+     */
+    public static class Pipeline
+        implements Statement
+    {
+        private final Command[] stages;
+
+        public Pipeline(final Command[] stages) {
+            assert stages != null;
+            assert stages.length > 1;
+            this.stages = stages;
+        }
+
+        public Command[] getStages() {
+            return stages;
+        }
+
+        public Object execute(final Shell shell, final CommandExecutor executor, final Evaluator evaluator) throws Exception {
+            IO io = shell.getIo();
+            int last = stages.length - 1;
+
+            Stage[] running = new Stage[stages.length];
+            Future[] futures = new Future[last];
+            ExecutorService threads = CommandThreads.get();
+            BytePipe input = null;
+
+            for (int i = 0; i <= last; i++) {
+                BytePipe output = i < last ? new BytePipe() : null;
+
+                InputStream in = input != null ? input.getInputStream() : io.streams.in;
+                PrintStream out = output != null ? new PrintStream(new StageOutputStream(output), true) : io.streams.out;
+                IO stageIo = new IO(new StreamSet(in, out, io.streams.err), true);
+                stageIo.setVerbosity(io.getVerbosity());
+
+                running[i] = new Stage(stages[i], new DelegatingShell(shell, stageIo, executor), executor, evaluator, input, output);
+                if (i < last) {
+                    futures[i] = threads.submit(running[i]);
+                }
+                input = output;
+            }
+
+            try {
+                running[last].run();
+            }
+            finally {
+                // Stages record their own failures
+                for (Future future : futures) {
+                    future.get();
+                }
+            }
+
+            // Report the first failure
+            for (Stage stage : running) {
+                if (stage.failure instanceof Exception) {
+                    throw (Exception) stage.failure;
+                }
+                if (stage.failure instanceof Error) {
+                    throw (Error) stage.failure;
+                }
+            }
+
+            return running[last].result;
+        }
+
+        @Override
+        public String toString() {
+            return Strings.join(stages, " | ");
+        }
+    }
+
+    /**
+     * A command or {@link Pipeline} followed by <tt>&</tt>.
+     * <p/>
+     * Submits the statement to the {@link JobManager} of the shell (see {@link JobControl}) and returns the {@link Job}
+     * without waiting.  The job executes with its own {@link IO}, sharing the output streams of the shell but with no
+     * input, as the console is still in use by the foreground; and with a child scope of the shell variables, so that
+     * variables set by the job (including the last result) do not change those of the foreground.
+     */
+    public static class Background
+        implements Statement
+    {
+        private static final byte[] NO_INPUT = {};
+
+        private final Statement statement;
+
+        public Background(final Statement statement) {
+            assert statement != null;
+            this.statement = statement;
+        }
+
+        public Statement getStatement() {
+            return statement;
+        }
+
+        public Object execute(final Shell shell, final CommandExecutor executor, final Evaluator evaluator) throws Exception {
+            JobManager jobs = shell instanceof JobControl ? ((JobControl) shell).getJobManager() : null;
+            if (jobs == null) {
+                throw new ErrorNotification("Background jobs are not supported by shell: " + shell);
+            }
+
+            IO io = shell.getIo();
+            IO jobIo = new IO(new StreamSet(new ByteArrayInputStream(NO_INPUT), io.streams.out, io.streams.err), true);
+            jobIo.setVerbosity(io.getVerbosity());
+            Variables jobVariables = new VariablesImpl(shell.getVariables());
+
+            final Shell jobShell = new DelegatingShell(shell, jobIo, jobVariables, executor);
+            Job job = jobs.submit(jobShell, statement.toString(), new Callable<Object>()
+            {
+                public Object call() throws Exception {
+                    return statement.execute(jobShell, executor, evaluator);
+                }
+            });
+
+            if (shell.isInteractive()) {
+                io.println("[{}] {}", job.getId(), job.getCommand());
+            }
+
+            return job;
+        }
+
+        @Override
+        public String toString() {
+            return statement + " &";
+        }
+    }
+
+    private static class Stage
+        implements Runnable
+    {
+        private final Command command;
+
+        private final Shell shell;
+
+        private final CommandExecutor executor;
+
+        private final Evaluator evaluator;
+
+        private final BytePipe input;
+
+        private final BytePipe output;
+
+        private final Map context;
+
+        private Object result;
+
+        private Throwable failure;
+
+        private Stage(final Command command, final Shell shell, final CommandExecutor executor, final Evaluator evaluator,
+                      final BytePipe input, final BytePipe output)
+        {
+            this.command = command;
+            this.shell = shell;
+            this.executor = executor;
+            this.evaluator = evaluator;
+            // input and output may be null
+            this.input = input;
+            this.output = output;
+            // Capture the logging context of the thread executing the pipeline
+            this.context = MDC.getCopyOfContextMap();
+        }
+
+        public void run() {
+            // Context is installed explicitly, pooled threads may have inherited that of some other shell
+            final Shell lastShell = ShellHolder.set(shell);
+            final Map lastContext = MDC.getCopyOfContextMap();
+            setContext(context);
+            StreamJack.maybeInstall(shell.getIo().streams);
+            try {
+                result = command.execute(shell, executor, evaluator);
+            }
+            catch (Throwable t) {
+                // The next stage has stopped reading, that is not a failure of this stage
+                if (!BrokenPipeException.isCause(t)) {
+                    failure = t;
+                }
+            }
+            finally {
+                StreamJack.deregister();
+                setContext(lastContext);
+                ShellHolder.set(lastShell);
+                try {
+                    shell.getIo().flush();
+                }
+                catch (BrokenPipeException e) {
+                    // ignore, nothing more will be read
+                }
+
+                // Signal EOF to the next stage
+                if (output != null) {
+                    output.closeWriter();
+                }
+
+                // Nothing more will be read, unblock the previous stage
+                if (input != null) {
+                    input.closeReader();
+                }
+            }
+        }
+
+        private static void setContext(final Map context) {
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            else {
+                MDC.clear();
+            }
+        }
+    }
+
+    /**
+     * Output of a pipeline stage; fails with {@link BrokenPipeException} once the next stage has stopped reading.
+     * Only the first failed write throws, later writes (flushing while the stage unwinds) are discarded.
+     */
+    private static class StageOutputStream
+        extends OutputStream
+    {
+        private final BytePipe pipe;
+
+        private final OutputStream out;
+
+        private boolean broken;
+
+        private StageOutputStream(final BytePipe pipe) {
+            this.pipe = pipe;
+            this.out = pipe.getOutputStream();
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (broken) {
+                return;
+            }
+            try {
+                out.write(b);
+            }
+            catch (IOException e) {
+                throw translate(e);
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (broken) {
+                return;
+            }
+            try {
+                out.write(b, off, len);
+            }
+            catch (IOException e) {
+                throw translate(e);
+            }
+        }
+
+        private IOException translate(final IOException e) {
+            if (pipe.isReaderClosed()) {
+                broken = true;
+                throw new BrokenPipeException(e);
+            }
+            return e;
+        }
+    }
+
+    /**
+     * Thrown when writing to a pipeline stage which has stopped reading.
+     */
+    private static class BrokenPipeException
+        extends RuntimeException
+    {
+        private BrokenPipeException(final IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        private static boolean isCause(Throwable t) {
+            while (t != null) {
+                if (t instanceof BrokenPipeException) {
+                    return true;
+                }
+                t = t.getCause();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A single argument; adjacent segments with no whitespace between them are joined.
+     * <p/>
+     * A typed argument is a single, unquoted, evaluated segment; its value is passed to the command as evaluated,
+     * without converting it to a string.
+     */
+    public static class Argument
+    {
+        private final String[] segments;
+
+        private final boolean[] evaluated;
+
+        private final String constant;
+
+        private final boolean typed;
+
+        /**
+         * @param segments  The raw text of each segment.
+         * @param evaluated Flags for which segments need to be passed through the {@link Evaluator}.
+         * @param typed     True if the evaluated value should not be converted to a string.
+         */
+        public Argument(final String[] segments, final boolean[] evaluated, final boolean typed) {
+            assert segments != null;
+            assert evaluated != null;
+            assert segments.length == evaluated.length;
+            this.segments = segments;
+            this.evaluated = evaluated;
+            this.typed = typed && segments.length == 1 && evaluated[0];
+
+            boolean constant = true;
+            for (boolean flag : evaluated) {
+                if (flag) {
+                    constant = false;
+                    break;
+                }
+            }
+            this.constant = constant ? join(segments) : null;
+        }
+
+        public Argument(final String[] segments, final boolean[] evaluated) {
+            this(segments, evaluated, false);
+        }
+
+        private static String join(final String[] segments) {
+            if (segments.length == 1) {
+                return segments[0];
+            }
+            StringBuilder buff = new StringBuilder();
+            for (String segment : segments) {
+                buff.append(segment);
+            }
+            return buff.toString();
+        }
+
+        public String[] getSegments() {
+            return segments;
+        }
+
+        public boolean isEvaluated(final int index) {
+            return evaluated[index];
+        }
+
+        public boolean isConstant() {
+            return constant != null;
+        }
+
+        public String getConstant() {
+            return constant;
+        }
+
+        /**
+         * @since 2.6.6
+         */
+        public boolean isTyped() {
+            return typed;
+        }
+
+        /**
+         * Evaluate the argument; typed arguments may produce any object, others produce a string.
+         *
+         * @since 2.6.6
+         */
+        public Object evaluateObject(final Evaluator evaluator) {
+            return evaluateObject(evaluator, null);
+        }
+
+        Object evaluateObject(final Evaluator evaluator, final StringBuilder scratch) {
+            if (!typed) {
+                return evaluate(evaluator, scratch);
+            }
+
+            Object value;
+            try {
+                value = evaluator.eval(segments[0]);
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return value != null ? value : String.valueOf(value);
+        }
+
+        public String evaluate(final Evaluator evaluator) {
+            return evaluate(evaluator, null);
+        }
+
+        /**
+         * @param scratch Buffer to join segments in; may be null.
+         */
+        private String evaluate(final Evaluator evaluator, final StringBuilder scratch) {
+            if (constant != null) {
+                return constant;
+            }
+            if (segments.length == 1) {
+                return eval(evaluator, segments[0]);
+            }
+
+            StringBuilder buff = scratch != null ? scratch : new StringBuilder();
+            buff.setLength(0);
+            for (int i = 0; i < segments.length; i++) {
+                buff.append(evaluated[i] ? eval(evaluator, segments[i]) : segments[i]);
+            }
+            return buff.toString();
+        }
+
+        private static String eval(final Evaluator evaluator, final String expression) {
+            Object value;
+            try {
+                value = evaluator.eval(expression);
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return String.valueOf(value);
+        }
+
+        @Override
+        public String toString() {
+            return constant != null ? constant : join(segments);
+        }
+    }
+}
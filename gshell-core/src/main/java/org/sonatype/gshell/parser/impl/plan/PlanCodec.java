@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl.plan;
+
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Argument;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Background;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Command;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Pipeline;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Statement;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of {@link ExecutionPlan}s, so compiled plans can be stored and loaded without parsing.
+ * <p/>
+ * Only the compiled form is written, plans refer to no runtime components.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public final class PlanCodec
+{
+    /**
+     * Bump when the encoding, or the way plans are compiled, changes.
+     */
+    public static final int VERSION = 1;
+
+    private static final int COMMAND = 'C';
+
+    private static final int PIPELINE = 'P';
+
+    private static final int BACKGROUND = 'B';
+
+    private PlanCodec() {
+        // empty
+    }
+
+    public static void write(final DataOutput out, final ExecutionPlan plan) throws IOException {
+        assert out != null;
+        assert plan != null;
+
+        Statement[] statements = plan.getStatements();
+        out.writeInt(statements.length);
+        for (Statement statement : statements) {
+            write(out, statement);
+        }
+    }
+
+    private static void write(final DataOutput out, final Statement statement) throws IOException {
+        if (statement instanceof Command) {
+            out.writeByte(COMMAND);
+            write(out, (Command) statement);
+        }
+        else if (statement instanceof Pipeline) {
+            out.writeByte(PIPELINE);
+            Command[] stages = ((Pipeline) statement).getStages();
+            out.writeInt(stages.length);
+            for (Command stage : stages) {
+                write(out, stage);
+            }
+        }
+        else if (statement instanceof Background) {
+            out.writeByte(BACKGROUND);
+            write(out, ((Background) statement).getStatement());
+        }
+        else {
+            throw new IOException("Unsupported statement type: " + statement.getClass().getName());
+        }
+    }
+
+    private static void write(final DataOutput out, final Command command) throws IOException {
+        Argument[] arguments = command.getArguments();
+        out.writeInt(arguments.length);
+        for (Argument argument : arguments) {
+            String[] segments = argument.getSegments();
+            out.writeBoolean(argument.isTyped());
+            out.writeInt(segments.length);
+            for (int i = 0; i < segments.length; i++) {
+                out.writeBoolean(argument.isEvaluated(i));
+                out.writeUTF(segments[i]);
+            }
+        }
+    }
+
+    public static ExecutionPlan read(final DataInput in) throws IOException {
+        assert in != null;
+
+        Statement[] statements = new Statement[in.readInt()];
+        for (int i = 0; i < statements.length; i++) {
+            statements[i] = readStatement(in);
+        }
+        return new ExecutionPlan(statements);
+    }
+
+    private static Statement readStatement(final DataInput in) throws IOException {
+        int type = in.readByte();
+        switch (type) {
+            case COMMAND:
+                return readCommand(in);
+
+            case PIPELINE:
+                Command[] stages = new Command[in.readInt()];
+                for (int i = 0; i < stages.length; i++) {
+                    stages[i] = readCommand(in);
+                }
+                return new Pipeline(stages);
+
+            case BACKGROUND:
+                return new Background(readStatement(in));
+
+            default:
+                throw new IOException("Invalid statement type: " + type);
+        }
+    }
+
+    private static Command readCommand(final DataInput in) throws IOException {
+        Argument[] arguments = new Argument[in.readInt()];
+        for (int i = 0; i < arguments.length; i++) {
+            boolean typed = in.readBoolean();
+            String[] segments = new String[in.readInt()];
+            boolean[] evaluated = new boolean[segments.length];
+            for (int j = 0; j < segments.length; j++) {
+                evaluated[j] = in.readBoolean();
+                segments[j] = in.readUTF();
+            }
+            arguments[i] = new Argument(segments, evaluated, typed);
+        }
+        return new Command(arguments);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl.visitor;
+
+import org.sonatype.gshell.parser.impl.ASTBackground;
+import org.sonatype.gshell.parser.impl.ASTCommandLine;
+import org.sonatype.gshell.parser.impl.ASTExpression;
+import org.sonatype.gshell.parser.impl.ASTOpaqueArgument;
+import org.sonatype.gshell.parser.impl.ASTPipeline;
+import org.sonatype.gshell.parser.impl.ASTPlainArgument;
+import org.sonatype.gshell.parser.impl.ASTQuotedArgument;
+import org.sonatype.gshell.parser.impl.ASTWhitespace;
+import org.sonatype.gshell.parser.impl.ParserVisitor;
+import org.sonatype.gshell.parser.impl.SimpleNode;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Argument;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Background;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Command;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Pipeline;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Statement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Visitor which compiles a parsed command-line into an {@link ExecutionPlan}.
+ * <p/>
+ * Produces the same arguments as {@link ExecutingVisitor}, but does the tree walking once up front; except that an
+ * argument made of a single expression keeps the type of its value.  Segments which do not contain a <tt>${</tt>
+ * start token are treated as literals and never passed to the evaluator.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class CompilingVisitor
+    implements ParserVisitor
+{
+    private static final String START_TOKEN = "${";
+
+    public ExecutionPlan compile(final ASTCommandLine root) {
+        assert root != null;
+
+        List<Statement> statements = new ArrayList<Statement>();
+        root.jjtAccept(this, statements);
+
+        return new ExecutionPlan(statements.toArray(new Statement[statements.size()]));
+    }
+
+    public Object visit(final SimpleNode node, final Object data) {
+        assert node != null;
+
+        // It is an error if we forgot to implement a node handler
+        throw new Error("Unhandled node type: " + node.getClass().getName());
+    }
+
+    public Object visit(final ASTCommandLine node, final Object data) {
+        assert node != null;
+        assert data != null;
+
+        return node.childrenAccept(this, data);
+    }
+
+    public Object visit(final ASTBackground node, final Object data) {
+        assert node != null;
+        assert data != null;
+
+        List<Statement> statements = new ArrayList<Statement>(1);
+        node.childrenAccept(this, statements);
+
+        if (statements.isEmpty()) {
+            throw new IllegalArgumentException("Invalid background job; missing command");
+        }
+
+        //noinspection unchecked
+        ((List<Statement>) data).add(new Background(statements.get(0)));
+
+        return data;
+    }
+
+    public Object visit(final ASTPipeline node, final Object data) {
+        assert node != null;
+        assert data != null;
+
+        List<Statement> stages = new ArrayList<Statement>();
+        node.childrenAccept(this, stages);
+
+        // Every stage must have a command
+        if (stages.size() != node.jjtGetNumChildren()) {
+            throw new IllegalArgumentException("Invalid pipeline; missing command");
+        }
+
+        //noinspection unchecked
+        ((List<Statement>) data).add(new Pipeline(stages.toArray(new Command[stages.size()])));
+
+        return data;
+    }
+
+    public Object visit(final ASTExpression node, final Object data) {
+        assert node != null;
+        assert data != null;
+
+        CommandBuilder builder = new CommandBuilder();
+        node.childrenAccept(this, builder);
+
+        Command command = builder.build();
+        if (command != null) {
+            //noinspection unchecked
+            ((List<Statement>) data).add(command);
+        }
+
+        return data;
+    }
+
+    public Object visit(final ASTWhitespace node, final Object data) {
+        assert node != null;
+        assert data != null;
+
+        ((CommandBuilder) data).next();
+        return data;
+    }
+
+    public Object visit(final ASTQuotedArgument node, final Object data) {
+        assert node != null;
+        assert data != null;
+
+        String value = node.getValue();
+        ((CommandBuilder) data).append(value, value.contains(START_TOKEN), false);
+        return data;
+    }
+
+    public Object visit(final ASTPlainArgument node, final Object data) {
+        assert node != null;
+        assert data != null;
+
+        // Only plain arguments are typed, quoting always produces a string
+        String value = node.getValue();
+        ((CommandBuilder) data).append(value, value.contains(START_TOKEN), true);
+        return data;
+    }
+
+    public Object visit(final ASTOpaqueArgument node, final Object data) {
+        assert node != null;
+        assert data != null;
+
+        ((CommandBuilder) data).append(node.getValue(), false, false);
+        return data;
+    }
+
+    //
+    // CommandBuilder
+    //
+
+    private static class CommandBuilder
+    {
+        private final List<Argument> arguments = new ArrayList<Argument>();
+
+        private final List<String> segments = new ArrayList<String>();
+
+        private final List<Boolean> evaluated = new ArrayList<Boolean>();
+
+        private boolean typed;
+
+        public void append(final String value, final boolean evaluate, final boolean plain) {
+            assert value != null;
+
+            // Empty literals never contribute to an argument
+            if (!evaluate && value.length() == 0) {
+                return;
+            }
+            segments.add(value);
+            evaluated.add(evaluate);
+            typed = plain && segments.size() == 1;
+        }
+
+        public void next() {
+            // If there are pending segments, then they form the next argument
+            if (!segments.isEmpty()) {
+                boolean[] flags = new boolean[evaluated.size()];
+                for (int i = 0; i < flags.length; i++) {
+                    flags[i] = evaluated.get(i);
+                }
+                arguments.add(new Argument(segments.toArray(new String[segments.size()]), flags, typed));
+                segments.clear();
+                evaluated.clear();
+            }
+        }
+
+        public Command build() {
+            next();
+            if (arguments.isEmpty()) {
+                return null;
+            }
+            return new Command(arguments.toArray(new Argument[arguments.size()]));
+        }
+    }
+}
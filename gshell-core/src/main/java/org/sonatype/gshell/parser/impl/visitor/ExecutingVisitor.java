@@ -17,9 +17,11 @@ package org.sonatype.gshell.parser.impl.visitor;
 
 import org.sonatype.gshell.execute.CommandExecutor;
 import org.sonatype.gshell.notification.ErrorNotification;
+import org.sonatype.gshell.parser.impl.ASTBackground;
 import org.sonatype.gshell.parser.impl.ASTCommandLine;
 import org.sonatype.gshell.parser.impl.ASTExpression;
 import org.sonatype.gshell.parser.impl.ASTOpaqueArgument;
+import org.sonatype.gshell.parser.impl.ASTPipeline;
 import org.sonatype.gshell.parser.impl.ASTPlainArgument;
 import org.sonatype.gshell.parser.impl.ASTQuotedArgument;
 import org.sonatype.gshell.parser.impl.ASTWhitespace;
@@ -37,6 +39,9 @@ import java.util.List;
 
 /**
  * Visitor which will execute command-lines as parsed.
+ * <p/>
+ * Command-lines are executed from compiled plans, see {@link CompilingVisitor}; this is kept as it was, as the
+ * baseline the plans are benchmarked against, so argument assembly here should not be changed.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.0
@@ -79,6 +84,50 @@ public class ExecutingVisitor
         return null;
     }
 
+    public Object visit(final ASTBackground node, final Object data) {
+        assert node != null;
+
+        // Jobs run concurrently, so they can not be executed as visited
+        Object result;
+        try {
+            result = node.getStatement().execute(shell, executor, evaluator);
+        }
+        catch (RuntimeException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new ErrorNotification("Background job submission failed", e);
+        }
+
+        List results = (List) data;
+        //noinspection unchecked
+        results.add(result);
+
+        return result;
+    }
+
+    public Object visit(final ASTPipeline node, final Object data) {
+        assert node != null;
+
+        // Pipeline stages run concurrently, so they can not be executed as visited
+        Object result;
+        try {
+            result = node.getStatement().execute(shell, executor, evaluator);
+        }
+        catch (RuntimeException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new ErrorNotification("Pipeline execution failed", e);
+        }
+
+        List results = (List) data;
+        //noinspection unchecked
+        results.add(result);
+
+        return result;
+    }
+
     public Object visit(final ASTExpression node, final Object data) {
         assert node != null;
 
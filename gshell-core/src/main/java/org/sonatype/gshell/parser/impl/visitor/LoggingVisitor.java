@@ -17,9 +17,11 @@ package org.sonatype.gshell.parser.impl.visitor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonatype.gshell.parser.impl.ASTBackground;
 import org.sonatype.gshell.parser.impl.ASTCommandLine;
 import org.sonatype.gshell.parser.impl.ASTExpression;
 import org.sonatype.gshell.parser.impl.ASTOpaqueArgument;
+import org.sonatype.gshell.parser.impl.ASTPipeline;
 import org.sonatype.gshell.parser.impl.ASTPlainArgument;
 import org.sonatype.gshell.parser.impl.ASTQuotedArgument;
 import org.sonatype.gshell.parser.impl.ASTWhitespace;
@@ -112,6 +114,14 @@ public class LoggingVisitor
         return log(ASTCommandLine.class, node, data);
     }
 
+    public Object visit(final ASTBackground node, Object data) {
+        return log(ASTBackground.class, node, data);
+    }
+
+    public Object visit(final ASTPipeline node, Object data) {
+        return log(ASTPipeline.class, node, data);
+    }
+
     public Object visit(final ASTExpression node, Object data) {
         return log(ASTExpression.class, node, data);
     }
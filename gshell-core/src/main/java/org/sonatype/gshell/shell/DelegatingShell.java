@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.shell;
+
+import org.sonatype.gshell.branding.Branding;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.job.JobControl;
+import org.sonatype.gshell.job.JobManager;
+import org.sonatype.gshell.variables.Variables;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+
+/**
+ * {@link Shell} which shares the state of another shell, but executes with its own {@link IO}, and optionally its
+ * own {@link Variables}.
+ * <p/>
+ * Used to rewire the streams of a command, for example for each stage of a pipeline.  Commands executed through
+ * this shell (aliases, <tt>set</tt> with <tt>-e</tt>, etc) also see the rewired streams.  Background jobs are given
+ * a child scope of the variables, so that what they set stays with the job.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class DelegatingShell
+    implements Shell, JobControl
+{
+    private final Shell delegate;
+
+    private final IO io;
+
+    private final Variables variables;
+
+    private final CommandExecutor executor;
+
+    /**
+     * @param variables The variables of the shell; may be null to share those of the delegate.
+     */
+    public DelegatingShell(final Shell delegate, final IO io, final Variables variables, final CommandExecutor executor) {
+        assert delegate != null;
+        this.delegate = delegate;
+        assert io != null;
+        this.io = io;
+        this.variables = variables;
+        assert executor != null;
+        this.executor = executor;
+    }
+
+    public DelegatingShell(final Shell delegate, final IO io, final CommandExecutor executor) {
+        this(delegate, io, null, executor);
+    }
+
+    public Shell getDelegate() {
+        return delegate;
+    }
+
+    public Branding getBranding() {
+        return delegate.getBranding();
+    }
+
+    public IO getIo() {
+        return io;
+    }
+
+    public Variables getVariables() {
+        return variables != null ? variables : delegate.getVariables();
+    }
+
+    public History getHistory() {
+        return delegate.getHistory();
+    }
+
+    /**
+     * Returns the jobs of the delegate, or null if it does not support background jobs.
+     */
+    public JobManager getJobManager() {
+        return delegate instanceof JobControl ? ((JobControl) delegate).getJobManager() : null;
+    }
+
+    public boolean isOpened() {
+        return delegate.isOpened();
+    }
+
+    public void close() {
+        delegate.close();
+    }
+
+    public Object execute(final CharSequence line) throws Exception {
+        return executor.execute(this, String.valueOf(line));
+    }
+
+    public Object execute(final CharSequence command, final Object[] args) throws Exception {
+        return executor.execute(this, String.valueOf(command), args);
+    }
+
+    public Object execute(final Object... args) throws Exception {
+        return executor.execute(this, args);
+    }
+
+    /**
+     * Always false; the delegate (if interactive) owns the console, commands run through this shell do not.
+     */
+    public boolean isInteractive() {
+        return false;
+    }
+
+    /**
+     * Run the shell non-interactively, as it is not {@link #isInteractive interactive}; executes the given command if
+     * any, then each line read from the input of the shell until it is exhausted.
+     */
+    public void run(final Object... args) throws Exception {
+        assert args != null;
+
+        if (args.length != 0) {
+            execute(args);
+        }
+        if (io.streams.in == null) {
+            return;
+        }
+
+        // The input belongs to the IO, so it is not closed here
+        BufferedReader reader = new BufferedReader(new InputStreamReader(io.streams.in));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            execute(line);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DelegatingShell{" +
+            "delegate=" + delegate +
+            ", io=" + io.streams +
+            '}';
+    }
+}
@@ -31,7 +31,12 @@ import org.sonatype.gshell.console.ConsolePrompt;
 import org.sonatype.gshell.console.ConsoleTask;
 import org.sonatype.gshell.event.EventAware;
 import org.sonatype.gshell.event.EventManager;
+import org.sonatype.gshell.event.EventManagerImpl;
 import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.execute.ScriptEngine;
+import org.sonatype.gshell.job.JobControl;
+import org.sonatype.gshell.job.JobManager;
+import org.sonatype.gshell.job.JobManagerImpl;
 import org.sonatype.gshell.util.io.Closer;
 import org.sonatype.gshell.util.io.StreamJack;
 import org.sonatype.gshell.notification.ExitNotification;
@@ -58,20 +63,33 @@ import java.util.concurrent.atomic.AtomicReference;
  * @since 2.0
  */
 public class ShellImpl
-    implements Shell
+    implements Shell, JobControl
 {
+    /**
+     * Directory, under the user context directory, where compiled scripts are kept.
+     *
+     * @since 2.6.6
+     */
+    public static final String SCRIPT_CACHE_DIR = "scripts";
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    private final EventManager events;
+
     private final Branding branding;
 
     private final CommandExecutor executor;
 
+    private ScriptEngine scripts;
+
     private IO io;
 
     private final Variables variables;
 
     private final ShellHistory history;
 
+    private final JobManagerImpl jobs = new JobManagerImpl();
+
     private List<Completer> completers;
 
     private ConsolePrompt prompt;
@@ -101,6 +119,7 @@ public class ShellImpl
         assert branding != null;
         // io and variables may be null
 
+        this.events = events;
         this.executor = executor;
         this.branding = branding;
         this.io = io != null ? io : new IO();
@@ -127,11 +146,23 @@ public class ShellImpl
         return history;
     }
 
+    /**
+     * @since 2.6.6
+     */
+    public JobManager getJobManager() {
+        return jobs;
+    }
+
     @Inject
     public void setPrompt(final ConsolePrompt prompt) {
         this.prompt = prompt;
     }
 
+    @Inject
+    public void setScriptEngine(final ScriptEngine scripts) {
+        this.scripts = scripts;
+    }
+
     @Inject
     public void setErrorHandler(final ConsoleErrorHandler errorHandler) {
         this.errorHandler = errorHandler;
@@ -174,6 +205,14 @@ public class ShellImpl
     }
 
     public synchronized void close() {
+        jobs.close();
+        if (events instanceof EventManagerImpl) {
+            // Also stops the thread delivering asynchronous events
+            ((EventManagerImpl) events).close();
+        }
+        else {
+            events.flush();
+        }
         opened = false;
     }
 
@@ -241,7 +280,7 @@ public class ShellImpl
                     @Override
                     public boolean doExecute(final String input) throws Exception {
                         try {
-                            // result is saved to LAST_RESULT via the CommandExecutor
+                            // result is saved to LAST_RESULT via the CommandExecutor, which also delivers held events
                             ShellImpl.this.execute(input);
                         }
                         catch (ExitNotification n) {
@@ -376,13 +415,32 @@ public class ShellImpl
         loadUserScript(fileName);
     }
 
+    /**
+     * Load a profile script.
+     * <p/>
+     * Scripts up to {@link ScriptEngine#COMPILE_LIMIT} are compiled before any line is executed, so a line which fails
+     * to parse stops the whole script, including the lines before it.  Larger scripts are streamed, and execute up to
+     * the line which fails.
+     */
     protected void loadScript(final File file) throws Exception {
         assert file != null;
 
         log.debug("Loading script: {}", file);
 
+        // Scripts are loaded at every startup, so keep their compiled form around
+        if (scripts != null && file.length() <= ScriptEngine.COMPILE_LIMIT) {
+            scripts.execute(this, scripts.compile(file, new File(branding.getUserContextDir(), SCRIPT_CACHE_DIR)));
+            return;
+        }
+
         BufferedReader reader = new BufferedReader(new FileReader(file));
         try {
+            if (scripts != null) {
+                // Too large to hold compiled, stream it instead
+                scripts.execute(this, file.getPath(), reader);
+                return;
+            }
+
             String line;
             while ((line = reader.readLine()) != null) {
                 execute(line);
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.variables;
+
+import org.sonatype.gshell.event.EventPolicy;
+
+import java.util.EventObject;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import static org.sonatype.gshell.variables.VariableNames.LAST_RESULT;
+
+/**
+ * {@link EventPolicy} for variable events.
+ * <p/>
+ * Events are published as they happen, except for the variables declared {@link #getCoalesced coalesced} or
+ * {@link #getSuppressed suppressed}.  Events of a coalesced variable are held per variable name and scope until the
+ * command-line completes, so a loop setting it over and over produces a single notification; it carries the value the
+ * variable had before the first of them.  By default this is only {@link VariableNames#LAST_RESULT}, written by every
+ * command.  Suppressed variables, written all the time and of no interest to listeners, publish no events at all;
+ * by default there are none.  Events of different scopes, such as those of a background job, are never combined.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class VariableEventPolicy
+    implements EventPolicy
+{
+    private final Set<String> coalesced = new CopyOnWriteArraySet<String>();
+
+    private final Set<String> suppressed = new CopyOnWriteArraySet<String>();
+
+    public VariableEventPolicy() {
+        coalesced.add(LAST_RESULT);
+    }
+
+    /**
+     * @return The mutable set of names of variables whose events are coalesced.
+     */
+    public Set<String> getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return The mutable set of names of variables whose events are not published.
+     */
+    public Set<String> getSuppressed() {
+        return suppressed;
+    }
+
+    public Action getAction(final EventObject event) {
+        assert event != null;
+
+        String name;
+        if (event instanceof VariableSetEvent) {
+            name = ((VariableSetEvent) event).getName();
+        }
+        else if (event instanceof VariableUnsetEvent) {
+            name = ((VariableUnsetEvent) event).getName();
+        }
+        else {
+            return Action.PUBLISH;
+        }
+
+        if (suppressed.contains(name)) {
+            return Action.SUPPRESS;
+        }
+        if (coalesced.contains(name)) {
+            return Action.COALESCE;
+        }
+        return Action.PUBLISH;
+    }
+
+    public Object getKey(final EventObject event) {
+        assert event != null;
+
+        if (event instanceof VariableSetEvent) {
+            VariableSetEvent target = (VariableSetEvent) event;
+            return new Key(target.getScope(), target.getName());
+        }
+        if (event instanceof VariableUnsetEvent) {
+            VariableUnsetEvent target = (VariableUnsetEvent) event;
+            return new Key(target.getScope(), target.getName());
+        }
+        return event.getSource();
+    }
+
+    public EventObject coalesce(final EventObject held, final EventObject event) {
+        assert held != null;
+        assert event != null;
+
+        // Report the change from the value before the first held event
+        if (held instanceof VariableSetEvent && event instanceof VariableSetEvent) {
+            VariableSetEvent target = (VariableSetEvent) event;
+            return new VariableSetEvent(target.getScope(), target.getName(), ((VariableSetEvent) held).getPrevious());
+        }
+        return event;
+    }
+
+    /**
+     * Identifies a variable of a scope; scopes are compared by identity.
+     */
+    private static class Key
+    {
+        private final Variables scope;
+
+        private final String name;
+
+        private Key(final Variables scope, final String name) {
+            this.scope = scope;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            return scope == that.scope && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(scope) + name.hashCode();
+        }
+    }
+}
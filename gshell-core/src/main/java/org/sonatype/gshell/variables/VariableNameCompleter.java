@@ -62,7 +62,7 @@ public class VariableNameCompleter
         }
 
         // Register for updates to variable changes
-        events.addListener(new EventListener()
+        EventListener listener = new EventListener()
         {
             public void onEvent(final EventObject event) throws Exception {
                 if (event instanceof VariableSetEvent) {
@@ -74,7 +74,9 @@ public class VariableNameCompleter
                     delegate.getStrings().remove(target.getName());
                 }
             }
-        });
+        };
+        events.addListener(listener, VariableSetEvent.class);
+        events.addListener(listener, VariableUnsetEvent.class);
 
         initialized = true;
     }
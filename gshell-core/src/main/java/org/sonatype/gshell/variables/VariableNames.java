@@ -51,5 +51,26 @@ public interface VariableNames
      */
     String SHELL_GROUP_PATH = "shell.group.path";
 
+    /**
+     * Maximum number of parsed command-lines to cache; <tt>0</tt> disables caching.
+     *
+     * @since 2.6.6
+     */
+    String SHELL_PARSER_CACHE_SIZE = "shell.parser.cache.size";
+
+    /**
+     * Number of threads used to execute the background jobs of each shell.
+     *
+     * @since 2.6.6
+     */
+    String SHELL_JOBS_THREADS = "shell.jobs.threads";
+
+    /**
+     * Maximum number of compiled expressions to cache; <tt>0</tt> disables caching.
+     *
+     * @since 2.6.6
+     */
+    String SHELL_EVAL_CACHE_SIZE = "shell.eval.cache.size";
+
     String LAST_RESULT = "_";
 }
\ No newline at end of file
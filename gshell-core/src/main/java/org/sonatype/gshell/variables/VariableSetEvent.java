@@ -28,20 +28,40 @@ public class VariableSetEvent
 {
     ///CLOVER:OFF
 
+    private final Variables scope;
+
     private final String name;
 
     private final Object previous;
 
-    public VariableSetEvent(final String name, final Object previous) {
+    /**
+     * @since 2.6.6
+     */
+    public VariableSetEvent(final Variables scope, final String name, final Object previous) {
         super(name);
 
+        // scope could be null
         assert name != null;
         // previous could be null
 
+        this.scope = scope;
         this.name = name;
         this.previous = previous;
     }
 
+    public VariableSetEvent(final String name, final Object previous) {
+        this(null, name, previous);
+    }
+
+    /**
+     * Returns the variables the variable was set in, if known.
+     *
+     * @since 2.6.6
+     */
+    public Variables getScope() {
+        return scope;
+    }
+
     public String getName() {
         return name;
     }
@@ -28,16 +28,36 @@ public class VariableUnsetEvent
 {
     ///CLOVER:OFF
 
+    private final Variables scope;
+
     private final String name;
 
-    public VariableUnsetEvent(final String name) {
+    /**
+     * @since 2.6.6
+     */
+    public VariableUnsetEvent(final Variables scope, final String name) {
         super(name);
 
+        // scope could be null
         assert name != null;
 
+        this.scope = scope;
         this.name = name;
     }
 
+    public VariableUnsetEvent(final String name) {
+        this(null, name);
+    }
+
+    /**
+     * Returns the variables the variable was unset from, if known.
+     *
+     * @since 2.6.6
+     */
+    public Variables getScope() {
+        return scope;
+    }
+
     public String getName() {
         return name;
     }
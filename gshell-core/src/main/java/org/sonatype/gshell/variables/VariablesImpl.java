@@ -19,14 +19,27 @@ import org.sonatype.gshell.event.EventAware;
 import org.sonatype.gshell.event.EventManager;
 import org.sonatype.gshell.util.converter.Converters;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
  * Provides a nested-namespace for command variables.
+ * <p/>
+ * Each scope keeps its own variables in a concurrent map, so setting a variable neither copies the scope nor locks out
+ * readers.  Lookups which miss the local variables are made against a flattened view of the parent scope and all of
+ * its ancestors.  A view is rebuilt lazily, only after its own scope or one of its ancestors has changed; changes to
+ * a scope never invalidate the views of its parents or siblings, and a root scope, such as the one holding the last
+ * result of a shell, never needs a view unless it has children.  Until it has variables of its own a child shares the
+ * view of its parent.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.0
@@ -34,11 +47,33 @@ import java.util.Set;
 public class VariablesImpl
     implements Variables, EventAware
 {
-    private final Map<String, Object> map;
+    /**
+     * Stands in for <tt>null</tt> values, which can not be held by a {@link ConcurrentHashMap}.
+     */
+    private static final Object NULL = new Object();
 
     private final Variables parent;
 
-    private final Set<String> immutables = new HashSet<String>();
+    /**
+     * The parent, if it is a {@link VariablesImpl}, else null.
+     */
+    private final VariablesImpl parentScope;
+
+    private final Map<String, Object> values = new ConcurrentHashMap<String, Object>();
+
+    /**
+     * Names of the local variables, in the order they were first set.
+     */
+    private final List<String> names = new CopyOnWriteArrayList<String>();
+
+    private final Set<String> immutables = new CopyOnWriteArraySet<String>();
+
+    /**
+     * Counts changes to this scope only; written while holding the lock, after the change itself.
+     */
+    private volatile int modifications;
+
+    private volatile View view;
 
     private EventManager eventManager;
 
@@ -46,12 +81,17 @@ public class VariablesImpl
         assert map != null;
         // parent may be null
 
-        this.map = map;
         this.parent = parent;
+        this.parentScope = parent instanceof VariablesImpl ? (VariablesImpl) parent : null;
+
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            values.put(entry.getKey(), encode(entry.getValue()));
+            names.add(entry.getKey());
+        }
     }
 
     public VariablesImpl(final Variables parent) {
-        this(new LinkedHashMap<String, Object>(), parent);
+        this(Collections.<String, Object>emptyMap(), parent);
     }
 
     public VariablesImpl(final Map<String, Object> map) {
@@ -59,7 +99,7 @@ public class VariablesImpl
     }
 
     public VariablesImpl() {
-        this(new LinkedHashMap<String, Object>());
+        this(Collections.<String, Object>emptyMap());
     }
 
     public void setEventManager(final EventManager eventManager) {
@@ -73,16 +113,24 @@ public class VariablesImpl
     public void set(final String name, final Object value, boolean mutable) {
         assert name != null;
 
-        ensureMutable(name);
+        Object previous;
 
-        Object previous = map.put(name, value);
+        synchronized (this) {
+            ensureMutable(name);
 
-        if (!mutable) {
-            immutables.add(name);
+            previous = values.put(name, encode(value));
+            if (previous == null) {
+                names.add(name);
+            }
+            if (!mutable) {
+                immutables.add(name);
+            }
+            modifications++;
         }
 
-        if (eventManager != null) {
-            eventManager.publish(new VariableSetEvent(name, previous));
+        // Skip creating the event when nobody is listening, which is the common case for assignments
+        if (eventManager != null && eventManager.hasListeners(VariableSetEvent.class)) {
+            eventManager.publish(new VariableSetEvent(this, name, decode(previous)));
         }
     }
 
@@ -95,11 +143,30 @@ public class VariablesImpl
     public Object get(final String name) {
         assert name != null;
 
-        Object value = map.get(name);
-        if (value == null && parent != null) {
-            value = parent.get(name);
+        Object value = values.get(name);
+        if (value != null && value != NULL) {
+            return value;
         }
 
+        // Null values do not hide the parent value
+        if (parentScope != null) {
+            return parentScope.lookup(name);
+        }
+        if (parent != null) {
+            return parent.get(name);
+        }
+        return null;
+    }
+
+    /**
+     * Lookup a variable of this scope or any of its parents, using the flattened view.
+     */
+    private Object lookup(final String name) {
+        View view = view();
+        Object value = view.values.get(name);
+        if (value == null && view.fallback != null) {
+            value = view.fallback.get(name);
+        }
         return value;
     }
 
@@ -148,12 +215,18 @@ public class VariablesImpl
     public void unset(final String name) {
         assert name != null;
 
-        ensureMutable(name);
+        synchronized (this) {
+            ensureMutable(name);
 
-        map.remove(name);
+            if (values.containsKey(name)) {
+                values.remove(name);
+                names.remove(name);
+                modifications++;
+            }
+        }
 
-        if (eventManager != null) {
-            eventManager.publish(new VariableUnsetEvent(name));
+        if (eventManager != null && eventManager.hasListeners(VariableUnsetEvent.class)) {
+            eventManager.publish(new VariableUnsetEvent(this, name));
         }
     }
 
@@ -166,7 +239,7 @@ public class VariablesImpl
     public boolean contains(final String name) {
         assert name != null;
 
-        return map.containsKey(name);
+        return values.containsKey(name);
     }
 
     public boolean contains(final Class<?> type) {
@@ -178,18 +251,12 @@ public class VariablesImpl
     public boolean isMutable(final String name) {
         assert name != null;
 
-        boolean mutable = true;
-
-        // First ask out parent if there is one, if they are immutable, then so are we
-        if (parent != null) {
-            mutable = parent.isMutable(name);
+        if (immutables.contains(name)) {
+            return false;
         }
 
-        if (mutable) {
-            mutable = !immutables.contains(name);
-        }
-
-        return mutable;
+        // If our parent is immutable, then so are we
+        return parent == null || parent.isMutable(name);
     }
 
     public boolean isMutable(final Class<?> type) {
@@ -229,35 +296,117 @@ public class VariablesImpl
         return isCloaked(type.getName());
     }
 
+    /**
+     * Returns the names of the variables in this scope followed by those of its parents; each name is returned once.
+     */
     public Iterator<String> names() {
-        // Chain to parent iterator if we have a parent
-        return new Iterator<String>()
-        {
-            Iterator<String> iter = map.keySet().iterator();
-            boolean more = parent() != null;
-
-            public boolean hasNext() {
-                boolean next = iter.hasNext();
-                if (!next && more) {
-                    iter = parent().names();
-                    more = false;
-                    next = hasNext();
-                }
+        View view = view();
+        if (view.fallback == null) {
+            return view.names.iterator();
+        }
 
-                return next;
+        // Parent is not flattened, include its names here
+        List<String> names = new ArrayList<String>(view.names);
+        Set<String> seen = new HashSet<String>(names);
+        for (Iterator<String> iter = view.fallback.names(); iter.hasNext();) {
+            String name = iter.next();
+            if (seen.add(name)) {
+                names.add(name);
             }
+        }
 
-            public String next() {
-                return iter.next();
+        return Collections.unmodifiableList(names).iterator();
+    }
+
+    public Variables parent() {
+        return parent;
+    }
+
+    private static Object encode(final Object value) {
+        return value != null ? value : NULL;
+    }
+
+    private static Object decode(final Object value) {
+        return value != NULL ? value : null;
+    }
+
+    //
+    // Views
+    //
+
+    private View view() {
+        // Read the count before the variables, so a view built concurrently with a change is never taken as current
+        View base = parentScope != null ? parentScope.view() : null;
+        int count = modifications;
+
+        View view = this.view;
+        if (view == null || view.modifications != count || view.base != base) {
+            view = flatten(count, base);
+            this.view = view;
+        }
+        return view;
+    }
+
+    private View flatten(final int count, final View base) {
+        Variables fallback = base != null ? base.fallback : parent;
+
+        // Share the parent view until we have variables of our own
+        if (base != null && names.isEmpty()) {
+            return new View(count, base, base.values, base.names, fallback);
+        }
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        List<String> names = new ArrayList<String>(this.names);
+
+        if (base != null) {
+            values.putAll(base.values);
+            Set<String> seen = new HashSet<String>(names);
+            for (String name : base.names) {
+                if (seen.add(name)) {
+                    names.add(name);
+                }
             }
+        }
 
-            public void remove() {
-                throw new UnsupportedOperationException();
+        // Null values do not hide the parent value
+        for (Map.Entry<String, Object> entry : this.values.entrySet()) {
+            if (entry.getValue() != NULL) {
+                values.put(entry.getKey(), entry.getValue());
             }
-        };
+        }
+
+        return new View(count, base, values, Collections.unmodifiableList(names), fallback);
     }
 
-    public Variables parent() {
-        return parent;
+    /**
+     * The variables of a scope merged with those of its parents.
+     */
+    private static class View
+    {
+        private final int modifications;
+
+        /**
+         * The view of the parent this view was built from, if any.
+         */
+        private final View base;
+
+        private final Map<String, Object> values;
+
+        private final List<String> names;
+
+        /**
+         * The nearest parent which is not a {@link VariablesImpl}, and must be consulted directly; or null.
+         */
+        private final Variables fallback;
+
+        private View(final int modifications, final View base, final Map<String, Object> values,
+                     final List<String> names, final Variables fallback)
+        {
+            this.modifications = modifications;
+            this.base = base;
+            this.values = values;
+            this.names = names;
+            this.fallback = fallback;
+        }
     }
-}
\ No newline at end of file
+}
@@ -16,6 +16,12 @@
 package org.sonatype.gshell.command;
 
 import org.junit.Test;
+import org.sonatype.gshell.util.io.StreamSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.MissingFormatArgumentException;
 
 import static org.junit.Assert.*;
 
@@ -36,4 +42,34 @@ public class IOTest
             // ignore
         }
     }
+
+    @Test
+    public void testPrintlnFormat() throws Exception {
+        ByteArrayOutputStream buff = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buff);
+        IO io = new IO(new StreamSet(new ByteArrayInputStream(new byte[0]), out), true);
+
+        io.println("a {} b {}", 1, null);
+        io.println("{}%% done, {}", 50, "ok");
+        io.out.flush();
+
+        String newline = System.getProperty("line.separator");
+        assertEquals("a 1 b null" + newline + "50% done, ok" + newline, buff.toString());
+    }
+
+    @Test
+    public void testFormat() throws Exception {
+        assertEquals("x", IO.Format.get("x").render());
+        assertEquals("[1]", IO.Format.get("[{}]").render(1, 2));
+        assertEquals("1 %", IO.Format.get("{} %%").render(1));
+        assertSame(IO.Format.get("{}"), IO.Format.get("{}"));
+
+        try {
+            IO.Format.get("{} {}").render(1);
+            fail();
+        }
+        catch (MissingFormatArgumentException expected) {
+            // ignore
+        }
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.command.resolver;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provides;
+import com.google.inject.Stage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonatype.gshell.command.DummyAction;
+import org.sonatype.gshell.command.registry.CommandRegistry;
+import org.sonatype.gshell.command.registry.CommandRegistryImpl;
+import org.sonatype.gshell.event.EventManager;
+import org.sonatype.gshell.event.EventManagerImpl;
+import org.sonatype.gshell.variables.Variables;
+import org.sonatype.gshell.variables.VariablesImpl;
+
+import static junit.framework.Assert.*;
+import static org.sonatype.gshell.variables.VariableNames.*;
+
+/**
+ * Tests for {@link CommandResolverImpl}.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class CommandResolverImplTest
+{
+    private Variables variables;
+
+    private CommandResolver resolver;
+
+    private Node root;
+
+    @Before
+    public void setUp() throws Exception {
+        variables = new VariablesImpl();
+
+        Injector injector = Guice.createInjector(Stage.DEVELOPMENT, new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(EventManager.class).to(EventManagerImpl.class);
+                bind(CommandRegistry.class).to(CommandRegistryImpl.class);
+                bind(CommandResolver.class).to(CommandResolverImpl.class);
+            }
+
+            @Provides
+            private Variables provideVariables() {
+                return variables;
+            }
+        });
+
+        resolver = injector.getInstance(CommandResolver.class);
+
+        root = resolver.root();
+        root.add("foo/a1", new DummyAction());
+        root.add("bar", new DummyAction());
+    }
+
+    @After
+    public void tearDown() {
+        resolver = null;
+        variables = null;
+        root = null;
+    }
+
+    @Test
+    public void testResolve() {
+        assertEquals("/bar", resolver.resolve("bar").getPath());
+        assertEquals("/bar", resolver.resolve("/bar").getPath());
+        assertEquals("/foo/a1", resolver.resolve("foo/a1").getPath());
+        assertNull(resolver.resolve("a1"));
+        assertNull(resolver.resolve("baz"));
+    }
+
+    @Test
+    public void testResolveAfterGroupChange() {
+        assertNull(resolver.resolve("a1"));
+
+        variables.set(SHELL_GROUP, "/foo");
+        assertEquals("/foo/a1", resolver.resolve("a1").getPath());
+        assertEquals("/bar", resolver.resolve("bar").getPath());
+
+        variables.set(SHELL_GROUP_PATH, ".");
+        assertNull(resolver.resolve("bar"));
+
+        variables.unset(SHELL_GROUP);
+        variables.unset(SHELL_GROUP_PATH);
+        assertNull(resolver.resolve("a1"));
+    }
+
+    @Test
+    public void testResolveAfterTreeChange() {
+        variables.set(SHELL_GROUP, "/foo");
+        assertEquals("/bar", resolver.resolve("bar").getPath());
+
+        // A command in the current group shadows one in the root
+        root.add("foo/bar", new DummyAction());
+        assertEquals("/foo/bar", resolver.resolve("bar").getPath());
+
+        root.remove("/foo/bar");
+        assertEquals("/bar", resolver.resolve("bar").getPath());
+    }
+
+    @Test
+    public void testSearchPathIsCopy() {
+        resolver.searchPath().clear();
+        assertEquals(2, resolver.searchPath().size());
+    }
+}
@@ -168,4 +168,16 @@ public class NodeTest
         assertEquals("a1", iter.next().getName());
         assertEquals("a2", iter.next().getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRemove() {
+        root.add("/group/a1", new DummyAction());
+        root.add("/group/a2", new DummyAction());
+        int modifications = root.getModifications();
+
+        root.remove("/group/a1");
+        assertNull(root.find("/group/a1"));
+        assertNotNull(root.find("/group/a2"));
+        assertTrue(root.getModifications() > modifications);
+    }
+}
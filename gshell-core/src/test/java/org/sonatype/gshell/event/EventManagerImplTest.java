@@ -23,7 +23,14 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EventObject;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -123,6 +130,199 @@ public class EventManagerImplTest
         assertEquals(event, anotherListener.event);
     }
 
+    @Test
+    public void testTypedListener() throws Exception {
+        manager.addListener(listener, TestEvent.class);
+        assertTrue(manager.hasListeners(TestEvent.class));
+        assertFalse(manager.hasListeners(EventObject.class));
+
+        manager.publish(new EventObject("test"));
+        assertNull(listener.event);
+
+        EventObject event = new TestEvent();
+        manager.publish(event);
+        assertEquals(event, listener.event);
+    }
+
+    @Test
+    public void testRemoveTypedListener() throws Exception {
+        manager.addListener(listener, TestEvent.class);
+        manager.addListener(listener);
+        manager.removeListener(listener);
+
+        assertFalse(manager.hasListeners(TestEvent.class));
+        manager.publish(new TestEvent());
+        assertNull(listener.event);
+    }
+
+    @Test
+    public void testListenerNotifiedOnce() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        EventListener counter = new EventListener()
+        {
+            public void onEvent(final EventObject event) throws Exception {
+                count.incrementAndGet();
+            }
+        };
+        manager.addListener(counter);
+        manager.addListener(counter, TestEvent.class);
+
+        manager.publish(new TestEvent());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testAsynchronousDelivery() throws Exception {
+        EventManager manager = new EventManagerImpl(EventManager.Delivery.ASYNCHRONOUS);
+
+        final List<Object> received = Collections.synchronizedList(new ArrayList<Object>());
+        final CountDownLatch done = new CountDownLatch(100);
+        manager.addListener(new EventListener()
+        {
+            public void onEvent(final EventObject event) throws Exception {
+                received.add(event.getSource());
+                done.countDown();
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            manager.publish(new EventObject(i));
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, received.get(i));
+        }
+    }
+
+    @Test
+    public void testDeliveryPerSubscription() throws Exception {
+        EventManagerImpl manager = new EventManagerImpl(EventManager.Delivery.ASYNCHRONOUS);
+
+        final Thread publisher = Thread.currentThread();
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+        final CountDownLatch done = new CountDownLatch(1);
+        manager.addListener(new EventListener()
+        {
+            public void onEvent(final EventObject event) throws Exception {
+                threads.add(Thread.currentThread());
+                done.countDown();
+            }
+        });
+        manager.addListener(listener, TestEvent.class, EventManager.Delivery.SYNCHRONOUS);
+
+        manager.publish(new TestEvent());
+
+        // Delivered before publish returned
+        assertNotNull(listener.event);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertNotSame(publisher, threads.get(0));
+        manager.close();
+    }
+
+    @Test
+    public void testCloseDeliversQueuedEvents() throws Exception {
+        EventManagerImpl manager = new EventManagerImpl(EventManager.Delivery.ASYNCHRONOUS);
+
+        final AtomicInteger count = new AtomicInteger();
+        manager.addListener(new EventListener()
+        {
+            public void onEvent(final EventObject event) throws Exception {
+                count.incrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            manager.publish(new TestEvent());
+        }
+        manager.close();
+        assertEquals(100, count.get());
+
+        // Still usable after close
+        manager.publish(new TestEvent());
+        manager.close();
+        assertEquals(101, count.get());
+    }
+
+    @Test
+    public void testPolicySuppress() throws Exception {
+        EventManagerImpl manager = new EventManagerImpl();
+        manager.setPolicy(new EventPolicy()
+        {
+            public Action getAction(final EventObject event) {
+                return event instanceof TestEvent ? Action.SUPPRESS : Action.PUBLISH;
+            }
+
+            public Object getKey(final EventObject event) {
+                return event.getSource();
+            }
+
+            public EventObject coalesce(final EventObject held, final EventObject event) {
+                return event;
+            }
+        });
+        manager.addListener(listener);
+
+        manager.publish(new TestEvent());
+        manager.flush();
+        assertNull(listener.event);
+    }
+
+    @Test
+    public void testPolicyCoalesce() throws Exception {
+        EventManagerImpl manager = new EventManagerImpl();
+        manager.setPolicy(new EventPolicy()
+        {
+            public Action getAction(final EventObject event) {
+                return event instanceof TestEvent ? Action.PUBLISH : Action.COALESCE;
+            }
+
+            public Object getKey(final EventObject event) {
+                return event.getSource();
+            }
+
+            public EventObject coalesce(final EventObject held, final EventObject event) {
+                return event;
+            }
+        });
+
+        final List<Object> received = new ArrayList<Object>();
+        manager.addListener(new EventListener()
+        {
+            public void onEvent(final EventObject event) throws Exception {
+                received.add(event);
+            }
+        });
+
+        EventObject a1 = new EventObject("a");
+        EventObject b = new EventObject("b");
+        EventObject a2 = new EventObject("a");
+        manager.publish(a1);
+        manager.publish(b);
+        manager.publish(a2);
+        assertTrue(received.isEmpty());
+
+        manager.flush();
+        assertEquals(Arrays.asList(b, a2), received);
+
+        // Events published immediately flush held events first
+        received.clear();
+        EventObject c = new EventObject("c");
+        EventObject test = new TestEvent();
+        manager.publish(c);
+        manager.publish(test);
+        assertEquals(Arrays.asList(c, test), received);
+    }
+
+    private static class TestEvent
+        extends EventObject
+    {
+        private TestEvent() {
+            super("test");
+        }
+    }
+
     //
     // MockEventListener
     //
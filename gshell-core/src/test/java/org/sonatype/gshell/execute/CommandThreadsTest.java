@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.execute;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link CommandThreads} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class CommandThreadsTest
+{
+    @After
+    public void tearDown() {
+        System.getProperties().remove(CommandThreads.VIRTUAL);
+    }
+
+    private void assertExecutes(final ExecutorService executor) throws Exception {
+        final Thread caller = Thread.currentThread();
+        Thread thread = executor.submit(new Callable<Thread>()
+        {
+            public Thread call() throws Exception {
+                return Thread.currentThread();
+            }
+        }).get();
+
+        assertNotNull(thread);
+        assertNotSame(caller, thread);
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        ExecutorService executor = CommandThreads.get();
+        assertSame(executor, CommandThreads.get());
+        assertExecutes(executor);
+    }
+
+    @Test
+    public void testVirtual() throws Exception {
+        // Falls back to platform threads when the runtime has no virtual threads
+        System.setProperty(CommandThreads.VIRTUAL, "true");
+        ExecutorService executor = CommandThreads.create();
+        try {
+            assertExecutes(executor);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.execute;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonatype.gshell.DummyShell;
+import org.sonatype.gshell.execute.ScriptEngine.Script;
+import org.sonatype.gshell.parser.CommandLineParser;
+import org.sonatype.gshell.parser.CommandLineParserImpl;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.util.Strings;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the {@link ScriptEngine} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class ScriptEngineTest
+{
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private final List<String> executed = new ArrayList<String>();
+
+    private int parsed;
+
+    private File dir;
+
+    private ScriptEngine engine;
+
+    @Before
+    public void setUp() throws Exception {
+        final CommandLineParser delegate = new CommandLineParserImpl();
+
+        CommandLineParser parser = new CommandLineParser()
+        {
+            public CommandLine parse(final String line) throws Exception {
+                parsed++;
+                if (line.equals("bad")) {
+                    throw new IllegalArgumentException(line);
+                }
+                return delegate.parse(line);
+            }
+        };
+
+        CommandExecutor executor = new CommandExecutor()
+        {
+            public Object execute(final Shell shell, final String line) throws Exception {
+                throw new UnsupportedOperationException();
+            }
+
+            public Object execute(final Shell shell, final String command, final Object[] args) throws Exception {
+                if (command.equals("fail")) {
+                    throw new IllegalStateException(command);
+                }
+                executed.add(command + " " + Strings.join(args, " "));
+                return command;
+            }
+
+            public Object execute(final Shell shell, final Object... args) throws Exception {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        engine = new ScriptEngine(parser, executor);
+
+        dir = tmp.getRoot();
+    }
+
+    @After
+    public void tearDown() {
+        engine = null;
+    }
+
+    private File write(final String content) throws IOException {
+        File file = new File(dir, "test.gsh");
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        }
+        finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    @Test
+    public void testCompileMapsLines() throws Exception {
+        Script script = engine.compile("test", new StringReader("a 1\n\n  \nb 2; c 3\n"));
+        assertEquals(2, script.size());
+        assertEquals(1, script.getLine(0));
+        assertEquals(4, script.getLine(1));
+
+        assertEquals("c", engine.execute(new DummyShell(), script));
+        assertEquals("[a 1, b 2, c 3]", executed.toString());
+    }
+
+    @Test
+    public void testFailureReportsLine() throws Exception {
+        try {
+            engine.execute(new DummyShell(), "test", new StringReader("a\n\nfail\nb\n"));
+            fail();
+        }
+        catch (ScriptException e) {
+            assertEquals("test", e.getName());
+            assertEquals(3, e.getLine());
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals("[a ]", executed.toString());
+    }
+
+    @Test
+    public void testSmallScriptsCompiledBeforeExecuting() throws Exception {
+        String source = "a\nb\nbad\n";
+        try {
+            engine.execute(new DummyShell(), "test", new StringReader(source), source.length());
+            fail();
+        }
+        catch (ScriptException e) {
+            assertEquals(3, e.getLine());
+        }
+        assertEquals("[]", executed.toString());
+    }
+
+    @Test
+    public void testUnsizedScriptsStreamed() throws Exception {
+        try {
+            engine.execute(new DummyShell(), "test", new StringReader("a\nb\nbad\n"), -1);
+            fail();
+        }
+        catch (ScriptException e) {
+            assertEquals(3, e.getLine());
+        }
+        assertEquals("[a , b ]", executed.toString());
+    }
+
+    @Test
+    public void testCompiledFileParsedBeforeExecuting() throws Exception {
+        File file = write("a\nb\nbad\n");
+        try {
+            engine.execute(new DummyShell(), engine.compile(file, new File(dir, "cache")));
+            fail();
+        }
+        catch (ScriptException e) {
+            assertEquals(3, e.getLine());
+        }
+        assertEquals("[]", executed.toString());
+    }
+
+    @Test
+    public void testCompiledFileIsCached() throws Exception {
+        File cache = new File(dir, "cache");
+        File file = write("a 1 '${x}'\nb \"2\" | c 3\n");
+
+        Script script = engine.compile(file, cache);
+        assertEquals(2, parsed);
+
+        // Unchanged content is loaded without parsing
+        Script cached = engine.compile(file, cache);
+        assertEquals(2, parsed);
+        assertEquals(script.size(), cached.size());
+        for (int i = 0; i < script.size(); i++) {
+            assertEquals(script.getLine(i), cached.getLine(i));
+            assertEquals(script.statements[i].toString(), cached.statements[i].toString());
+        }
+
+        // Changed content is compiled again
+        write("a 1\n");
+        assertEquals(1, engine.compile(file, cache).size());
+        assertEquals(3, parsed);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.job;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonatype.gshell.DummyShell;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.shell.ShellHolder;
+import org.sonatype.gshell.variables.Variables;
+import org.sonatype.gshell.variables.VariablesImpl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link JobManagerImpl} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class JobManagerImplTest
+{
+    private JobManagerImpl jobs;
+
+    private Shell shell;
+
+    @Before
+    public void setUp() {
+        jobs = new JobManagerImpl();
+        jobs.setExecutorService(Executors.newFixedThreadPool(2));
+
+        final IO io = new IO();
+        final Variables vars = new VariablesImpl();
+        shell = new DummyShell()
+        {
+            @Override
+            public IO getIo() {
+                return io;
+            }
+
+            @Override
+            public Variables getVariables() {
+                return vars;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        jobs.getExecutorService().shutdownNow();
+        jobs = null;
+        shell = null;
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        Job job = jobs.submit(shell, "test", new Callable<Object>()
+        {
+            public Object call() throws Exception {
+                // The job thread sees the job shell
+                return ShellHolder.get();
+            }
+        });
+
+        assertEquals(1, job.getId());
+        assertSame(job, jobs.getJob(1));
+        assertSame(job, jobs.getCurrentJob());
+        assertSame(shell, job.await());
+        assertEquals(Job.State.DONE, job.getState());
+        assertSame(shell, job.getResult());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        Job job = jobs.submit(shell, "test", new Callable<Object>()
+        {
+            public Object call() throws Exception {
+                throw new IllegalStateException("failed");
+            }
+        });
+
+        try {
+            job.await();
+            fail();
+        }
+        catch (IllegalStateException expected) {
+            // ignore
+        }
+        assertEquals(Job.State.FAILED, job.getState());
+        assertTrue(job.getFailure() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testError() throws Exception {
+        Job job = jobs.submit(shell, "test", new Callable<Object>()
+        {
+            public Object call() throws Exception {
+                throw new AssertionError("failed");
+            }
+        });
+
+        try {
+            job.await();
+            fail();
+        }
+        catch (AssertionError expected) {
+            // ignore
+        }
+
+        // Inspecting the job does not rethrow the error
+        assertEquals(Job.State.FAILED, job.getState());
+        assertTrue(job.getFailure() instanceof AssertionError);
+        assertNull(job.getResult());
+        assertTrue(job.toString().contains("FAILED"));
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        Job job = jobs.submit(shell, "test", new Callable<Object>()
+        {
+            public Object call() throws Exception {
+                started.countDown();
+                Thread.sleep(60 * 1000);
+                return null;
+            }
+        });
+
+        started.await();
+        assertEquals(Job.State.RUNNING, job.getState());
+        assertTrue(job.cancel());
+        assertEquals(Job.State.CANCELLED, job.getState());
+
+        try {
+            job.await();
+            fail();
+        }
+        catch (CancellationException expected) {
+            // ignore
+        }
+    }
+
+    @Test
+    public void testIdsAreReused() throws Exception {
+        Callable<Object> task = new Callable<Object>()
+        {
+            public Object call() throws Exception {
+                return null;
+            }
+        };
+
+        Job job1 = jobs.submit(shell, "1", task);
+        Job job2 = jobs.submit(shell, "2", task);
+        assertEquals(2, job2.getId());
+        assertEquals(2, jobs.getJobs().size());
+
+        jobs.remove(job1);
+        assertNull(jobs.getJob(1));
+        assertEquals(1, jobs.submit(shell, "3", task).getId());
+
+        jobs.remove(job2);
+        assertEquals(1, jobs.getCurrentJob().getId());
+    }
+
+    @Test
+    public void testSeparateManagersHaveSeparateJobs() throws Exception {
+        Callable<Object> task = new Callable<Object>()
+        {
+            public Object call() throws Exception {
+                return null;
+            }
+        };
+
+        JobManagerImpl other = new JobManagerImpl();
+        try {
+            Job job = other.submit(shell, "other", task);
+
+            // Each shell has its own ids, and can not see the jobs of another
+            assertEquals(1, job.getId());
+            assertEquals(1, jobs.submit(shell, "test", task).getId());
+            assertNotSame(job, jobs.getJob(1));
+            assertEquals(1, other.getJobs().size());
+        }
+        finally {
+            other.close();
+        }
+    }
+
+    @Test
+    public void testCloseCancelsJobs() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        JobManagerImpl other = new JobManagerImpl();
+        Job job = other.submit(shell, "test", new Callable<Object>()
+        {
+            public Object call() throws Exception {
+                started.countDown();
+                Thread.sleep(60 * 1000);
+                return null;
+            }
+        });
+
+        started.await();
+        other.close();
+
+        assertEquals(Job.State.CANCELLED, job.getState());
+        assertTrue(other.getJobs().isEmpty());
+        assertNull(other.getExecutorService());
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonatype.gshell.DummyShell;
+import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.util.Strings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stress tests for concurrent use of {@link CommandLineParserImpl}.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class CommandLineParserImplStressTest
+{
+    private static final int ITERATIONS = 2000;
+
+    private CommandLineParserImpl parser;
+
+    private Shell shell;
+
+    private CommandExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        parser = new CommandLineParserImpl();
+
+        // Force every line through the parser
+        parser.getCache().setMaxSize(0);
+
+        shell = new DummyShell();
+        executor = new EchoExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        parser = null;
+        shell = null;
+        executor = null;
+    }
+
+    /**
+     * Parse and execute from many threads at once; every result must match the line it was parsed from.
+     *
+     * @param lines Number of distinct lines per thread; lines are shared between threads.
+     */
+    private void run(final int threads, final int lines) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch ready = new CountDownLatch(threads);
+            final CountDownLatch go = new CountDownLatch(1);
+            final AtomicInteger verified = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+
+            for (int t = 0; t < threads; t++) {
+                final int id = t;
+                futures.add(pool.submit(new Callable<Object>()
+                {
+                    public Object call() throws Exception {
+                        // Start all threads together, to maximize contention
+                        ready.countDown();
+                        go.await();
+
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            int n = (id + i) % lines;
+                            String expected = "cmd" + n + " a" + n + " b " + n + " c;d";
+                            Object result = parser.parse("cmd" + n + " a" + n + " 'b " + n + "' \"c\";d").execute(shell, executor);
+                            assertEquals(expected, result);
+                            verified.incrementAndGet();
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            ready.await();
+            go.countDown();
+
+            // Propagate any failures
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            assertEquals(threads * ITERATIONS, verified.get());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int threads() {
+        return Math.max(4, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    public void testConcurrentParse() throws Exception {
+        run(threads(), ITERATIONS);
+    }
+
+    @Test
+    public void testConcurrentParseCached() throws Exception {
+        parser.getCache().setMaxSize(16);
+
+        // Fewer lines than threads, so threads hit the same cache entries
+        run(threads(), 3);
+        assertTrue(parser.getCache().getHits() > 0);
+    }
+
+    /**
+     * Returns the joined command-line; for multiple commands the last result is returned, so append the previous.
+     */
+    private static class EchoExecutor
+        implements CommandExecutor
+    {
+        private final ThreadLocal<String> last = new ThreadLocal<String>();
+
+        public Object execute(final Shell shell, final String line) throws Exception {
+            throw new UnsupportedOperationException();
+        }
+
+        public Object execute(final Shell shell, final String command, final Object[] args) throws Exception {
+            String prev = last.get();
+            String result;
+            if (args.length == 0) {
+                result = prev + ";" + command;
+                last.remove();
+            }
+            else {
+                result = command + " " + Strings.join(args, " ");
+                last.set(result);
+            }
+            return result;
+        }
+
+        public Object execute(final Shell shell, final Object... args) throws Exception {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -22,8 +22,17 @@ import com.google.inject.Stage;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.sonatype.gshell.DummyShell;
+import org.sonatype.gshell.event.EventManager;
+import org.sonatype.gshell.event.EventManagerImpl;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.shell.ShellHolder;
+import org.sonatype.gshell.variables.VariableSetEvent;
+import org.sonatype.gshell.variables.Variables;
+import org.sonatype.gshell.variables.VariablesImpl;
 
 import static org.junit.Assert.*;
+import static org.sonatype.gshell.variables.VariableNames.SHELL_PARSER_CACHE_SIZE;
 
 /**
  * Unit tests for the {@link org.sonatype.gshell.parser.CommandLineParserImpl} class.
@@ -34,20 +43,25 @@ public class CommandLineParserImplTest
 {
     private CommandLineParser parser;
 
+    private EventManager events;
+
     @Before
     public void setUp() throws Exception {
         Injector injector = Guice.createInjector(Stage.DEVELOPMENT, new AbstractModule() {
             @Override
             protected void configure() {
                 bind(CommandLineParser.class).to(CommandLineParserImpl.class);
+                bind(EventManager.class).to(EventManagerImpl.class);
             }
         });
         parser = injector.getInstance(CommandLineParser.class);
+        events = injector.getInstance(EventManager.class);
     }
 
     @After
     public void tearDown() {
         parser = null;
+        events = null;
     }
 
     @Test
@@ -60,4 +74,78 @@ public class CommandLineParserImplTest
             // ignore
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseIsCached() throws Exception {
+        CommandLineCache cache = ((CommandLineParserImpl) parser).getCache();
+
+        CommandLineParser.CommandLine cl1 = parser.parse("echo hi");
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        CommandLineParser.CommandLine cl2 = parser.parse("echo hi");
+        assertSame(cl1, cl2);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testCacheEviction() throws Exception {
+        CommandLineCache cache = ((CommandLineParserImpl) parser).getCache();
+        cache.setMaxSize(2);
+
+        parser.parse("a");
+        parser.parse("b");
+        parser.parse("a");
+        parser.parse("c");
+
+        // "b" was the least recently used
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        CommandLineCache cache = ((CommandLineParserImpl) parser).getCache();
+        cache.setMaxSize(0);
+
+        parser.parse("echo hi");
+        parser.parse("echo hi");
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testCacheSizeOnlyReadWhenChanged() throws Exception {
+        CommandLineCache cache = ((CommandLineParserImpl) parser).getCache();
+
+        final Variables vars = new VariablesImpl();
+        vars.set(SHELL_PARSER_CACHE_SIZE, 1);
+
+        Shell lastShell = ShellHolder.set(new DummyShell()
+        {
+            @Override
+            public Variables getVariables() {
+                return vars;
+            }
+        });
+        try {
+            parser.parse("echo hi");
+            assertEquals(1, cache.getMaxSize());
+
+            // Not published, so not noticed
+            vars.set(SHELL_PARSER_CACHE_SIZE, 2);
+            parser.parse("echo hi");
+            assertEquals(1, cache.getMaxSize());
+
+            events.publish(new VariableSetEvent(SHELL_PARSER_CACHE_SIZE, 1));
+            parser.parse("echo hi");
+            assertEquals(2, cache.getMaxSize());
+        }
+        finally {
+            ShellHolder.set(lastShell);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl;
+
+import org.junit.Test;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Argument;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Background;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Command;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Pipeline;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Statement;
+import org.sonatype.gshell.parser.impl.visitor.CompilingVisitor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link CompilingVisitor}.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class CompilingVisitorTest
+    extends ParserTestSupport
+{
+    private ExecutionPlan compile(final String input) throws Exception {
+        ExecutionPlan plan = new CompilingVisitor().compile(parse(input));
+        assertNotNull(plan);
+        return plan;
+    }
+
+    private Command command(final ExecutionPlan plan, final int index) {
+        Statement statement = plan.getStatements()[index];
+        assertTrue(statement instanceof Command);
+        return (Command) statement;
+    }
+
+    @Test
+    public void testConstantArguments() throws Exception {
+        ExecutionPlan plan = compile("a \"b\" 'c' d");
+
+        assertEquals(1, plan.getStatements().length);
+        Argument[] args = command(plan, 0).getArguments();
+        assertEquals(4, args.length);
+        for (Argument arg : args) {
+            assertTrue(arg.isConstant());
+        }
+        assertEquals("a", args[0].getConstant());
+        assertEquals("b", args[1].getConstant());
+        assertEquals("c", args[2].getConstant());
+        assertEquals("d", args[3].getConstant());
+    }
+
+    @Test
+    public void testAdjacentSegmentsAreJoined() throws Exception {
+        ExecutionPlan plan = compile("a b\"c\"'${d}'");
+
+        Argument[] args = command(plan, 0).getArguments();
+        assertEquals(2, args.length);
+        assertEquals("bc${d}", args[1].getConstant());
+    }
+
+    @Test
+    public void testInterpolationSlot() throws Exception {
+        ExecutionPlan plan = compile("a x${b}y 'z'");
+
+        Argument arg = command(plan, 0).getArguments()[1];
+        assertFalse(arg.isConstant());
+        assertEquals(2, arg.getSegments().length);
+        assertTrue(arg.isEvaluated(0));
+        assertFalse(arg.isEvaluated(1));
+    }
+
+    @Test
+    public void testTypedArguments() throws Exception {
+        ExecutionPlan plan = compile("a ${b} \"${c}\" '${d}'");
+
+        Argument[] args = command(plan, 0).getArguments();
+        assertEquals(4, args.length);
+        assertFalse(args[0].isTyped());
+        assertTrue(args[1].isTyped());
+        assertFalse(args[2].isTyped());
+        assertFalse(args[3].isTyped());
+    }
+
+    @Test
+    public void testMultipleStatements() throws Exception {
+        ExecutionPlan plan = compile("a; b c ;");
+
+        assertEquals(2, plan.getStatements().length);
+        assertEquals("a", command(plan, 0).getArguments()[0].getConstant());
+        assertEquals("b", command(plan, 1).getArguments()[0].getConstant());
+        assertEquals(2, command(plan, 1).getArguments().length);
+    }
+
+    @Test
+    public void testPipeline() throws Exception {
+        ExecutionPlan plan = compile("a | b c | d; e");
+
+        Statement[] statements = plan.getStatements();
+        assertEquals(2, statements.length);
+        assertTrue(statements[0] instanceof Pipeline);
+        assertTrue(statements[1] instanceof Command);
+
+        Command[] stages = ((Pipeline) statements[0]).getStages();
+        assertEquals(3, stages.length);
+        assertEquals("a", stages[0].getArguments()[0].getConstant());
+        assertEquals(2, stages[1].getArguments().length);
+        assertEquals("d", stages[2].getArguments()[0].getConstant());
+    }
+
+    @Test
+    public void testQuotedPipeIsNotAPipeline() throws Exception {
+        ExecutionPlan plan = compile("a '|' \"|\" b");
+
+        assertEquals(1, plan.getStatements().length);
+        assertEquals(4, command(plan, 0).getArguments().length);
+        assertEquals("|", command(plan, 0).getArguments()[1].getConstant());
+    }
+
+    @Test
+    public void testBackground() throws Exception {
+        ExecutionPlan plan = compile("a b & c | d &; e");
+
+        Statement[] statements = plan.getStatements();
+        assertEquals(3, statements.length);
+        assertTrue(statements[0] instanceof Background);
+        assertTrue(((Background) statements[0]).getStatement() instanceof Command);
+        assertTrue(statements[1] instanceof Background);
+        assertTrue(((Background) statements[1]).getStatement() instanceof Pipeline);
+        assertTrue(statements[2] instanceof Command);
+    }
+
+    @Test
+    public void testAmpersandWithinWord() throws Exception {
+        ExecutionPlan plan = compile("wget http://h/?a=1&b=2 &c d&");
+
+        assertEquals(1, plan.getStatements().length);
+        Argument[] args = command(plan, 0).getArguments();
+        assertEquals(4, args.length);
+        assertEquals("http://h/?a=1&b=2", args[1].getConstant());
+        assertEquals("&c", args[2].getConstant());
+        assertEquals("d&", args[3].getConstant());
+    }
+}
@@ -39,6 +39,8 @@ public class ParserVisitorTest
 
         assertNull(v.simpleNode);
         assertNotNull(v.commandLine);
+        assertNull(v.background);
+        assertNull(v.pipeline);
         assertNotNull(v.expression);
         assertNotNull(v.quotedArgument);
         assertNotNull(v.opaqueArgument);
@@ -51,6 +53,8 @@ public class ParserVisitorTest
     {
         private SimpleNode simpleNode;
         private ASTCommandLine commandLine;
+        private ASTBackground background;
+        private ASTPipeline pipeline;
         private ASTExpression expression;
         private ASTQuotedArgument quotedArgument;
         private ASTOpaqueArgument opaqueArgument;
@@ -69,6 +73,18 @@ public class ParserVisitorTest
             return node.childrenAccept(this, data);
         }
 
+        public Object visit(ASTBackground node, Object data) {
+            this.background = node;
+
+            return node.childrenAccept(this, data);
+        }
+
+        public Object visit(ASTPipeline node, Object data) {
+            this.pipeline = node;
+
+            return node.childrenAccept(this, data);
+        }
+
         public Object visit(ASTExpression node, Object data) {
             this.expression = node;
 
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl.eval;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonatype.gshell.DummyShell;
+import org.sonatype.gshell.event.EventManager;
+import org.sonatype.gshell.event.EventManagerImpl;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.shell.ShellHolder;
+import org.sonatype.gshell.variables.VariableSetEvent;
+import org.sonatype.gshell.variables.Variables;
+import org.sonatype.gshell.variables.VariablesImpl;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.sonatype.gshell.variables.VariableNames.SHELL_EVAL_CACHE_SIZE;
+
+/**
+ * Tests for the {@link JexlEvaluator} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class JexlEvaluatorTest
+{
+    private final Variables vars = new VariablesImpl();
+
+    private JexlEvaluator evaluator;
+
+    private Shell lastShell;
+
+    @Before
+    public void setUp() {
+        lastShell = ShellHolder.set(new DummyShell()
+        {
+            @Override
+            public Variables getVariables() {
+                return vars;
+            }
+        });
+        evaluator = new JexlEvaluator();
+    }
+
+    @After
+    public void tearDown() {
+        ShellHolder.set(lastShell);
+    }
+
+    @Test
+    public void testEval() throws Exception {
+        vars.set("a", 1);
+        vars.set("b", "foo");
+        assertEquals("1 foo", evaluator.eval("${a} ${b}"));
+        assertEquals(2, evaluator.eval("${a + 1}"));
+        assertEquals("plain", evaluator.eval("plain"));
+    }
+
+    @Test
+    public void testSingleExpressionIsNotStringified() throws Exception {
+        Object list = Arrays.asList(1, 2, 3);
+        vars.set("list", list);
+        assertSame(list, evaluator.eval("${list}"));
+        assertEquals("[1, 2, 3]!", evaluator.eval("${list}!"));
+    }
+
+    @Test
+    public void testCachedExpressionSeesNewValues() throws Exception {
+        vars.set("a", 1);
+        assertEquals(1, evaluator.eval("${a}"));
+
+        vars.set("a", 2);
+        assertEquals(2, evaluator.eval("${a}"));
+
+        ExpressionCache cache = evaluator.getCache();
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        vars.set(SHELL_EVAL_CACHE_SIZE, 0);
+        vars.set("a", 1);
+        assertEquals("<1>", evaluator.eval("<${a}>"));
+        assertEquals(1, evaluator.eval("${a}"));
+
+        ExpressionCache cache = evaluator.getCache();
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testCacheSizeOnlyReadWhenChanged() throws Exception {
+        EventManager events = new EventManagerImpl();
+        evaluator.setEventManager(events);
+        ExpressionCache cache = evaluator.getCache();
+
+        vars.set(SHELL_EVAL_CACHE_SIZE, 1);
+        evaluator.eval("${a}");
+        assertEquals(1, cache.getMaxSize());
+
+        // Not published, so not noticed
+        vars.set(SHELL_EVAL_CACHE_SIZE, 2);
+        evaluator.eval("${a}");
+        assertEquals(1, cache.getMaxSize());
+
+        events.publish(new VariableSetEvent(SHELL_EVAL_CACHE_SIZE, 1));
+        evaluator.eval("${a}");
+        assertEquals(2, cache.getMaxSize());
+    }
+
+    @Test
+    public void testCachePerThread() throws Exception {
+        vars.set("a", 1);
+        assertEquals(1, evaluator.eval("${a}"));
+
+        final Shell shell = ShellHolder.get();
+        final ExpressionCache[] other = new ExpressionCache[1];
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run() {
+                ShellHolder.set(shell);
+                try {
+                    evaluator.eval("${a}");
+                    other[0] = evaluator.getCache();
+                }
+                catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+
+        // Compiled expressions are not shared between threads
+        assertNotSame(evaluator.getCache(), other[0]);
+        assertEquals(1, other[0].getMisses());
+        assertEquals(1, evaluator.getCache().getMisses());
+    }
+}
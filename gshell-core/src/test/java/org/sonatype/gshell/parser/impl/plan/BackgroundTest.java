@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl.plan;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonatype.gshell.DummyShell;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.job.Job;
+import org.sonatype.gshell.job.JobControl;
+import org.sonatype.gshell.job.JobManager;
+import org.sonatype.gshell.job.JobManagerImpl;
+import org.sonatype.gshell.notification.ErrorNotification;
+import org.sonatype.gshell.parser.impl.eval.Evaluator;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Argument;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Background;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Command;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.variables.Variables;
+import org.sonatype.gshell.variables.VariablesImpl;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for executing a {@link Background} job.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class BackgroundTest
+{
+    private static final Evaluator EVALUATOR = new Evaluator()
+    {
+        public Object eval(final String expression) throws Exception {
+            return expression;
+        }
+    };
+
+    /**
+     * Sets a variable named by the command, like the executor does for the last result.
+     */
+    private static final CommandExecutor EXECUTOR = new CommandExecutor()
+    {
+        public Object execute(final Shell shell, final String line) throws Exception {
+            throw new UnsupportedOperationException();
+        }
+
+        public Object execute(final Shell shell, final String command, final Object[] args) throws Exception {
+            shell.getVariables().set(command, "job");
+            return command;
+        }
+
+        public Object execute(final Shell shell, final Object... args) throws Exception {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private JobManagerImpl jobs;
+
+    private Variables vars;
+
+    private Shell shell;
+
+    @Before
+    public void setUp() {
+        jobs = new JobManagerImpl();
+        vars = new VariablesImpl();
+
+        final IO io = new IO();
+        shell = new JobShell()
+        {
+            @Override
+            public IO getIo() {
+                return io;
+            }
+
+            @Override
+            public Variables getVariables() {
+                return vars;
+            }
+
+            public JobManager getJobManager() {
+                return jobs;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        jobs.close();
+        jobs = null;
+        vars = null;
+        shell = null;
+    }
+
+    private static Background background(final String name) {
+        return new Background(new Command(new Argument[] { new Argument(new String[] { name }, new boolean[] { false }) }));
+    }
+
+    @Test
+    public void testVariablesStayInJob() throws Exception {
+        vars.set("a", "shell");
+
+        Job job = (Job) background("a").execute(shell, EXECUTOR, EVALUATOR);
+        assertEquals("a", job.await());
+
+        // Set in the scope of the job, not in that of the shell
+        assertEquals("shell", vars.get("a"));
+        assertEquals("job", job.getShell().getVariables().get("a"));
+    }
+
+    @Test
+    public void testNotSupported() throws Exception {
+        try {
+            background("a").execute(new DummyShell(), EXECUTOR, EVALUATOR);
+            fail();
+        }
+        catch (ErrorNotification expected) {
+            // ignore
+        }
+    }
+
+    private static abstract class JobShell
+        extends DummyShell
+        implements JobControl
+    {
+        // empty
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl.plan;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.sonatype.gshell.DummyShell;
+import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.parser.impl.eval.Evaluator;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Argument;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Command;
+import org.sonatype.gshell.shell.Shell;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.*;
+
+/**
+ * Allocation budget tests for executing a {@link Command}.
+ * <p/>
+ * Allocation depends on the JVM and its flags, so the budget is only enforced when the {@link #ENABLED} system
+ * property is set, such as by the <tt>allocation-budgets</tt> build profile.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class CommandAllocationTest
+{
+    public static final String ENABLED = "gshell.test.allocationBudgets";
+
+    /**
+     * Bytes allowed per command; covers the argument array handed to the command and the joined argument string.
+     */
+    private static final long BUDGET = 128;
+
+    private static final int WARMUP = 20000;
+
+    private static final int ITERATIONS = 100000;
+
+    private static final Evaluator EVALUATOR = new Evaluator()
+    {
+        public Object eval(final String expression) throws Exception {
+            return "value";
+        }
+    };
+
+    private static final CommandExecutor EXECUTOR = new CommandExecutor()
+    {
+        public Object execute(final Shell shell, final String line) throws Exception {
+            return null;
+        }
+
+        public Object execute(final Shell shell, final String command, final Object[] args) throws Exception {
+            return args;
+        }
+
+        public Object execute(final Shell shell, final Object... args) throws Exception {
+            return null;
+        }
+    };
+
+    private static Argument literal(final String value) {
+        return new Argument(new String[] { value }, new boolean[] { false });
+    }
+
+    private static Argument expression(final String value) {
+        return new Argument(new String[] { value }, new boolean[] { true }, true);
+    }
+
+    /**
+     * @return Allocated bytes for the current thread, or -1 if the JVM can not tell.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try {
+            // Only available from com.sun.management.ThreadMXBean
+            Class<?> type = Class.forName("com.sun.management.ThreadMXBean");
+            Method method = type.getMethod("getThreadAllocatedBytes", long.class);
+            return (Long) method.invoke(threads, Thread.currentThread().getId());
+        }
+        catch (Exception e) {
+            return -1;
+        }
+    }
+
+    @Test
+    public void testArguments() throws Exception {
+        Command command = new Command(new Argument[] {
+            literal("echo"),
+            literal("-n"),
+            expression("${a}"),
+            new Argument(new String[] { "x", "${b}" }, new boolean[] { false, true })
+        });
+
+        Shell shell = new DummyShell();
+        Object[] args = (Object[]) command.execute(shell, EXECUTOR, EVALUATOR);
+        assertEquals(3, args.length);
+        assertEquals("-n", args[0]);
+        assertEquals("value", args[1]);
+        assertEquals("xvalue", args[2]);
+
+        Assume.assumeTrue(Boolean.getBoolean(ENABLED));
+        Assume.assumeTrue(allocatedBytes() != -1);
+
+        for (int i = 0; i < WARMUP; i++) {
+            command.execute(shell, EXECUTOR, EVALUATOR);
+        }
+
+        long start = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            command.execute(shell, EXECUTOR, EVALUATOR);
+        }
+        long perCommand = (allocatedBytes() - start) / ITERATIONS;
+
+        assertTrue("Allocated " + perCommand + " bytes per command; budget: " + BUDGET, perCommand <= BUDGET);
+    }
+}
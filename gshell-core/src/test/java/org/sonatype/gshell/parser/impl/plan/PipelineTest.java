@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.parser.impl.plan;
+
+import org.junit.Test;
+import org.sonatype.gshell.DummyShell;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.parser.impl.eval.Evaluator;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Argument;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Command;
+import org.sonatype.gshell.parser.impl.plan.ExecutionPlan.Pipeline;
+import org.sonatype.gshell.shell.Shell;
+import org.sonatype.gshell.util.io.StreamSet;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for executing a {@link Pipeline}.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class PipelineTest
+{
+    private static final Evaluator EVALUATOR = new Evaluator()
+    {
+        public Object eval(final String expression) throws Exception {
+            return expression;
+        }
+    };
+
+    /**
+     * <tt>yes</tt> writes lines until it fails, <tt>head</tt> returns the first line it reads.
+     */
+    private static final CommandExecutor EXECUTOR = new CommandExecutor()
+    {
+        public Object execute(final Shell shell, final String line) throws Exception {
+            throw new UnsupportedOperationException();
+        }
+
+        public Object execute(final Shell shell, final String command, final Object[] args) throws Exception {
+            IO io = shell.getIo();
+
+            if (command.equals("yes")) {
+                while (true) {
+                    io.out.println("y");
+                }
+            }
+
+            return new BufferedReader(io.in).readLine();
+        }
+
+        public Object execute(final Shell shell, final Object... args) throws Exception {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private static Command command(final String name) {
+        return new Command(new Argument[] { new Argument(new String[] { name }, new boolean[] { false }) });
+    }
+
+    @Test(timeout = 10000)
+    public void testProducerOutlivesConsumer() throws Exception {
+        final IO io = new IO(new StreamSet(new ByteArrayInputStream(new byte[0]), new PrintStream(new ByteArrayOutputStream())), true);
+        Shell shell = new DummyShell()
+        {
+            @Override
+            public IO getIo() {
+                return io;
+            }
+        };
+
+        Pipeline pipeline = new Pipeline(new Command[] { command("yes"), command("head") });
+
+        // Completes once the producer notices the consumer has gone away
+        assertEquals("y", pipeline.execute(shell, EXECUTOR, EVALUATOR));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.shell;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonatype.gshell.DummyShell;
+import org.sonatype.gshell.command.IO;
+import org.sonatype.gshell.execute.CommandExecutor;
+import org.sonatype.gshell.util.Strings;
+import org.sonatype.gshell.util.io.StreamSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link DelegatingShell} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class DelegatingShellTest
+{
+    private IO io;
+
+    private DelegatingShell shell;
+
+    @Before
+    public void setUp() throws Exception {
+        io = new IO(new StreamSet(new ByteArrayInputStream(new byte[0]), new PrintStream(new ByteArrayOutputStream())), true);
+
+        shell = new DelegatingShell(new DummyShell(), io, new CommandExecutor()
+        {
+            public Object execute(final Shell shell, final String line) throws Exception {
+                return shell;
+            }
+
+            public Object execute(final Shell shell, final String command, final Object[] args) throws Exception {
+                return shell;
+            }
+
+            public Object execute(final Shell shell, final Object... args) throws Exception {
+                return shell;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        io = null;
+        shell = null;
+    }
+
+    @Test
+    public void testExecutesWithOwnIo() throws Exception {
+        Shell executed = (Shell) shell.execute("echo");
+        assertSame(shell, executed);
+        assertSame(io, executed.getIo());
+    }
+
+    @Test
+    public void testRunExecutesInput() throws Exception {
+        final List<String> executed = new ArrayList<String>();
+        IO io = new IO(new StreamSet(new ByteArrayInputStream("a\nb 1\n".getBytes()), new PrintStream(new ByteArrayOutputStream())), true);
+
+        shell = new DelegatingShell(new DummyShell(), io, new CommandExecutor()
+        {
+            public Object execute(final Shell shell, final String line) throws Exception {
+                executed.add(line);
+                return null;
+            }
+
+            public Object execute(final Shell shell, final String command, final Object[] args) throws Exception {
+                throw new UnsupportedOperationException();
+            }
+
+            public Object execute(final Shell shell, final Object... args) throws Exception {
+                executed.add(Strings.join(args, " "));
+                return null;
+            }
+        });
+
+        assertFalse(shell.isInteractive());
+        shell.run("first", "arg");
+        assertEquals("[first arg, a, b 1]", executed.toString());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.variables;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sonatype.gshell.event.EventListener;
+import org.sonatype.gshell.event.EventManagerImpl;
+
+import java.util.ArrayList;
+import java.util.EventObject;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.sonatype.gshell.variables.VariableNames.LAST_RESULT;
+
+/**
+ * Unit tests for the {@link VariableEventPolicy} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class VariableEventPolicyTest
+{
+    private EventManagerImpl events;
+
+    private final List<EventObject> received = new ArrayList<EventObject>();
+
+    @Before
+    public void setUp() {
+        events = new EventManagerImpl();
+        events.setPolicy(new VariableEventPolicy());
+        events.addListener(new EventListener()
+        {
+            public void onEvent(final EventObject event) throws Exception {
+                received.add(event);
+            }
+        });
+    }
+
+    private VariablesImpl createVariables(final Variables parent) {
+        VariablesImpl vars = new VariablesImpl(parent);
+        vars.setEventManager(events);
+        return vars;
+    }
+
+    @Test
+    public void testPublishedByDefault() {
+        Variables vars = createVariables(null);
+        vars.set("a", "1");
+        assertEquals(1, received.size());
+        assertEquals("a", ((VariableSetEvent) received.get(0)).getName());
+    }
+
+    @Test
+    public void testSuppressed() {
+        VariableEventPolicy policy = new VariableEventPolicy();
+        policy.getSuppressed().add("a");
+        events.setPolicy(policy);
+
+        Variables vars = createVariables(null);
+        vars.set("a", "1");
+        events.flush();
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testLastResultCoalescedKeepsFirstPrevious() {
+        Variables vars = createVariables(null);
+        vars.set(LAST_RESULT, "1");
+        events.flush();
+        received.clear();
+
+        vars.set(LAST_RESULT, "2");
+        vars.set(LAST_RESULT, "3");
+        assertTrue(received.isEmpty());
+
+        events.flush();
+        assertEquals(1, received.size());
+        VariableSetEvent event = (VariableSetEvent) received.get(0);
+        assertSame(vars, event.getScope());
+        assertEquals(LAST_RESULT, event.getName());
+        assertEquals("1", event.getPrevious());
+    }
+
+    @Test
+    public void testScopesNotCombined() {
+        Variables parent = createVariables(null);
+        Variables child = createVariables(parent);
+
+        parent.set(LAST_RESULT, "1");
+        child.set(LAST_RESULT, "2");
+        events.flush();
+
+        assertEquals(2, received.size());
+        assertSame(parent, ((VariableSetEvent) received.get(0)).getScope());
+        assertSame(child, ((VariableSetEvent) received.get(1)).getScope());
+    }
+}
@@ -18,7 +18,10 @@ package org.sonatype.gshell.variables;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -217,6 +220,46 @@ public class VariablesTest
         assertFalse(iter.hasNext());
     }
 
+    @Test
+    public void testNamesAreUnique() throws Exception {
+        Variables vars = new VariablesImpl(parent);
+        parent.set("a", "1");
+        parent.set("b", "2");
+        vars.set("a", "3");
+
+        List<String> names = new ArrayList<String>();
+        for (Iterator<String> iter = vars.names(); iter.hasNext();) {
+            names.add(iter.next());
+        }
+        assertEquals(Arrays.asList("a", "b"), names);
+    }
+
+    @Test
+    public void testParentChangesAreVisible() throws Exception {
+        Variables vars = new VariablesImpl(parent);
+        parent.set("a", "1");
+        assertEquals("1", vars.get("a"));
+
+        parent.set("a", "2");
+        assertEquals("2", vars.get("a"));
+
+        parent.unset("a");
+        assertNull(vars.get("a"));
+
+        parent.set("b", "3", false);
+        assertFalse(vars.isMutable("b"));
+    }
+
+    @Test
+    public void testNullDoesNotCloakParent() throws Exception {
+        Variables vars = new VariablesImpl(parent);
+        parent.set("a", "1");
+        vars.set("a", null);
+
+        assertTrue(vars.contains("a"));
+        assertEquals("1", vars.get("a"));
+    }
+
     @Test
     public void testNamesImmutable() throws Exception {
         vars.set("a", "b");
@@ -231,4 +274,52 @@ public class VariablesTest
             // ignore
         }
     }
+
+    @Test
+    public void testSiblingChangesAreIsolated() throws Exception {
+        Variables child1 = new VariablesImpl(parent);
+        Variables child2 = new VariablesImpl(parent);
+        parent.set("a", "1");
+
+        child1.set("a", "2");
+        child2.set("b", "3");
+
+        assertEquals("2", child1.get("a"));
+        assertNull(child1.get("b"));
+        assertEquals("1", child2.get("a"));
+        assertEquals("3", child2.get("b"));
+        assertEquals("1", parent.get("a"));
+        assertNull(parent.get("b"));
+    }
+
+    @Test
+    public void testGrandparentChangesAreVisible() throws Exception {
+        Variables child = new VariablesImpl(parent);
+        Variables grandchild = new VariablesImpl(child);
+        child.set("b", "2");
+
+        parent.set("a", "1");
+        assertEquals("1", grandchild.get("a"));
+        assertEquals("2", grandchild.get("b"));
+
+        parent.set("a", "3");
+        assertEquals("3", grandchild.get("a"));
+
+        child.set("a", "4");
+        assertEquals("4", grandchild.get("a"));
+
+        child.unset("a");
+        assertEquals("3", grandchild.get("a"));
+    }
+
+    @Test
+    public void testNullValue() throws Exception {
+        vars.set("a", null);
+        assertTrue(vars.contains("a"));
+        assertNull(vars.get("a"));
+        assertEquals("a", vars.names().next());
+
+        vars.set("a", "1");
+        assertEquals("1", vars.get("a"));
+    }
 }
@@ -25,8 +25,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Bootstrap configuration.
@@ -61,7 +59,15 @@ public class Configuration
 
     public static final int FAILURE_EXIT_CODE = 100;
 
-    private static final Pattern PATTERN = Pattern.compile("\\$\\{([^}]+)\\}");
+    private static final String START_TOKEN = "${";
+
+    private static final char END_CHAR = '}';
+
+    private static final String DEFAULT_SEPARATOR = ":-";
+
+    private static final char ESCAPE_CHAR = '\\';
+
+    private static final int MAX_DEPTH = 16;
 
     private Properties props;
 
@@ -156,20 +162,94 @@ public class Configuration
         return evaluate(System.getProperty(name, props.getProperty(name)));
     }
 
-    private String evaluate(String input) {
-        if (input != null) {
-            Matcher matcher = PATTERN.matcher(input);
+    /**
+     * Replace <tt>${name}</tt> and <tt>${name:-default}</tt> with configuration properties, in a single pass.
+     * <tt>\${</tt> is a literal <tt>${</tt>.  Same syntax as <tt>org.sonatype.gshell.util.Template</tt>, which the
+     * launcher can not depend upon.
+     */
+    private String evaluate(final String input) {
+        if (input == null || !input.contains(START_TOKEN)) {
+            return input;
+        }
+
+        StringBuilder buff = new StringBuilder(input.length() + 16);
+        evaluate(input, buff, 0);
+        return buff.toString();
+    }
+
+    private void evaluate(final String input, final StringBuilder buff, final int depth) {
+        int length = input.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = input.charAt(i);
 
-            while (matcher.find()) {
-                Object rep = props.get(matcher.group(1));
-                if (rep != null) {
-                    input = input.replace(matcher.group(0), rep.toString());
-                    matcher.reset(input);
+            if (c == ESCAPE_CHAR && input.startsWith(START_TOKEN, i + 1)) {
+                buff.append(START_TOKEN);
+                i += 1 + START_TOKEN.length();
+                continue;
+            }
+
+            if (input.startsWith(START_TOKEN, i)) {
+                int start = i + START_TOKEN.length();
+                int end = findEnd(input, start);
+
+                if (end != -1 && end != start) {
+                    String body = input.substring(start, end);
+                    String name = body;
+                    String defaultValue = null;
+
+                    int sep = body.indexOf(DEFAULT_SEPARATOR);
+                    int nested = body.indexOf(START_TOKEN);
+                    if (sep != -1 && (nested == -1 || sep < nested)) {
+                        name = body.substring(0, sep);
+                        defaultValue = body.substring(sep + DEFAULT_SEPARATOR.length());
+                    }
+
+                    Object value = props.get(name);
+                    if (value != null && depth < MAX_DEPTH) {
+                        evaluate(value.toString(), buff, depth + 1);
+                    }
+                    else if (value != null) {
+                        buff.append(value);
+                    }
+                    else if (defaultValue != null) {
+                        evaluate(defaultValue, buff, depth);
+                    }
+                    else {
+                        buff.append(input, i, end + 1);
+                    }
+
+                    i = end + 1;
+                    continue;
                 }
             }
+
+            buff.append(c);
+            i++;
+        }
+    }
+
+    private static int findEnd(final String input, int i) {
+        int depth = 1;
+
+        while (i < input.length()) {
+            if (input.charAt(i) == ESCAPE_CHAR && input.startsWith(START_TOKEN, i + 1)) {
+                i += 1 + START_TOKEN.length();
+            }
+            else if (input.startsWith(START_TOKEN, i)) {
+                depth++;
+                i += START_TOKEN.length();
+            }
+            else if (input.charAt(i) == END_CHAR && --depth == 0) {
+                return i;
+            }
+            else {
+                i++;
+            }
         }
 
-        return input;
+        return -1;
     }
 
     private File getPropertyAsFile(final String name) {
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, synchronized LRU cache which counts hits, misses and evictions.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class LruCache<K, V>
+{
+    private final Map<K, V> entries;
+
+    private int maxSize;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    public LruCache(final int maxSize) {
+        this.maxSize = Math.max(maxSize, 0);
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(final K key) {
+        assert key != null;
+
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        }
+        else {
+            misses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(final K key, final V value) {
+        assert key != null;
+        assert value != null;
+
+        if (maxSize > 0) {
+            entries.put(key, value);
+        }
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Change the maximum number of cached entries; a size of <tt>0</tt> disables caching.
+     */
+    public synchronized void setMaxSize(final int maxSize) {
+        if (maxSize == this.maxSize) {
+            return;
+        }
+        this.maxSize = Math.max(maxSize, 0);
+
+        // Trim down to the new size, eldest first
+        while (entries.size() > this.maxSize) {
+            entries.remove(entries.keySet().iterator().next());
+            evictions++;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return getClass().getSimpleName() + "{" +
+            "size=" + entries.size() +
+            ", maxSize=" + maxSize +
+            ", hits=" + hits +
+            ", misses=" + misses +
+            ", evictions=" + evictions +
+            '}';
+    }
+}
@@ -15,11 +15,16 @@
  */
 package org.sonatype.gshell.util;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Helper to process variable pattern-based replacement.
+ * <p/>
+ * With the default pattern inputs are compiled into {@link Template}s, which are cached, and rendered in a single
+ * pass; see {@link Template} for the supported syntax.  Custom patterns are processed with regular expressions.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  *
@@ -29,11 +34,38 @@ public abstract class ReplacementParser
 {
     public static final String DEFAULT_PATTERN = "\\$\\{([^}]+)\\}";
 
+    /**
+     * @since 2.6.6
+     */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
     private final Pattern pattern;
 
+    private final Map<String,Template> templates;
+
+    private final Template.Resolver resolver = new Template.Resolver()
+    {
+        public Object resolve(final String name) throws Exception {
+            return replace(name);
+        }
+    };
+
     public ReplacementParser(final String pattern) {
         assert pattern != null;
-        this.pattern = Pattern.compile(pattern);
+        if (DEFAULT_PATTERN.equals(pattern)) {
+            this.pattern = null;
+            this.templates = new LinkedHashMap<String,Template>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String,Template> eldest) {
+                    return size() > DEFAULT_CACHE_SIZE;
+                }
+            };
+        }
+        else {
+            this.pattern = Pattern.compile(pattern);
+            this.templates = null;
+        }
     }
 
     public ReplacementParser() {
@@ -41,6 +73,15 @@ public abstract class ReplacementParser
     }
 
     public String parse(String input) {
+        if (input != null && pattern == null) {
+            try {
+                return template(input).render(resolver);
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
         if (input != null) {
             Matcher matcher = pattern.matcher(input);
 
@@ -63,5 +104,35 @@ public abstract class ReplacementParser
         return input;
     }
 
+    /**
+     * Same as {@link #parse}, except that when the input is a single variable its replacement is returned as-is, rather
+     * than converted to a string.  Custom patterns always produce strings.
+     *
+     * @since 2.6.6
+     */
+    public Object evaluate(final String input) {
+        if (input != null && pattern == null) {
+            try {
+                return template(input).evaluate(resolver);
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        return parse(input);
+    }
+
+    private Template template(final String input) {
+        synchronized (templates) {
+            Template template = templates.get(input);
+            if (template == null) {
+                template = Template.compile(input);
+                templates.put(input, template);
+            }
+            return template;
+        }
+    }
+
     protected abstract Object replace(String key) throws Exception;
-}
\ No newline at end of file
+}
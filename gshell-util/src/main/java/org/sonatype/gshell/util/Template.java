@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled <tt>${name}</tt> interpolation template.
+ * <p/>
+ * The input is parsed once, in a single pass, into literal and variable segments, which may then be rendered any
+ * number of times; instances are immutable and thread-safe.  Supported syntax:
+ * <ul>
+ * <li><tt>${name}</tt> - replaced by the resolved value; left as-is if it does not resolve</li>
+ * <li><tt>${name:-default}</tt> - replaced by the default if it does not resolve; the default may itself contain
+ * variables</li>
+ * <li><tt>\${</tt> - a literal <tt>${</tt></li>
+ * </ul>
+ * Resolved values which contain variables are rendered in turn, up to {@link #MAX_DEPTH} levels deep.
+ * <p/>
+ * {@link #evaluate} differs from {@link #render} only for templates which are a single variable; the resolved value is
+ * returned as-is, without converting it to a string.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class Template
+{
+    public static final String START_TOKEN = "${";
+
+    public static final String END_TOKEN = "}";
+
+    public static final String DEFAULT_SEPARATOR = ":-";
+
+    public static final char ESCAPE_CHAR = '\\';
+
+    public static final int MAX_DEPTH = 16;
+
+    /**
+     * Resolves the value of a variable.
+     */
+    public static interface Resolver
+    {
+        /**
+         * @return The value of the variable, or null if it is not defined.
+         */
+        Object resolve(String name) throws Exception;
+    }
+
+    private final String source;
+
+    private final Segment[] segments;
+
+    private Template(final String source, final Segment[] segments) {
+        this.source = source;
+        this.segments = segments;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return True if the template has no variables; rendering always returns the same value.
+     */
+    public boolean isConstant() {
+        return segments.length == 0 || (segments.length == 1 && segments[0] instanceof Literal);
+    }
+
+    public String render(final Resolver resolver) throws Exception {
+        assert resolver != null;
+
+        if (segments.length == 0) {
+            return "";
+        }
+        if (segments.length == 1 && segments[0] instanceof Literal) {
+            return ((Literal) segments[0]).text;
+        }
+
+        StringBuilder buff = new StringBuilder(source.length() + 16);
+        render(resolver, buff, 0);
+        return buff.toString();
+    }
+
+    /**
+     * Evaluate the template; if it is a single variable which resolves to an object other than a string, then that
+     * object is returned, otherwise the template is rendered.
+     */
+    public Object evaluate(final Resolver resolver) throws Exception {
+        assert resolver != null;
+
+        if (segments.length == 1 && segments[0] instanceof Variable) {
+            Variable variable = (Variable) segments[0];
+            Object value = resolver.resolve(variable.name);
+            if (value != null && !(value instanceof String)) {
+                return value;
+            }
+
+            StringBuilder buff = new StringBuilder(source.length() + 16);
+            variable.append(value, resolver, buff, 0);
+            return buff.toString();
+        }
+
+        return render(resolver);
+    }
+
+    private void render(final Resolver resolver, final StringBuilder buff, final int depth) throws Exception {
+        for (Segment segment : segments) {
+            segment.render(resolver, buff, depth);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    //
+    // Compilation
+    //
+
+    public static Template compile(final String input) {
+        assert input != null;
+
+        List<Segment> segments = new ArrayList<Segment>();
+        StringBuilder literal = new StringBuilder();
+        int length = input.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = input.charAt(i);
+
+            if (c == ESCAPE_CHAR && input.startsWith(START_TOKEN, i + 1)) {
+                literal.append(START_TOKEN);
+                i += 1 + START_TOKEN.length();
+                continue;
+            }
+
+            if (input.startsWith(START_TOKEN, i)) {
+                int start = i + START_TOKEN.length();
+                int end = findEnd(input, start);
+
+                // Unterminated or empty; not a variable
+                if (end == -1 || end == start) {
+                    literal.append(START_TOKEN);
+                    i = start;
+                    continue;
+                }
+
+                if (literal.length() != 0) {
+                    segments.add(new Literal(literal.toString()));
+                    literal.setLength(0);
+                }
+                segments.add(variable(input.substring(start, end), input.substring(i, end + END_TOKEN.length())));
+                i = end + END_TOKEN.length();
+                continue;
+            }
+
+            literal.append(c);
+            i++;
+        }
+
+        if (literal.length() != 0) {
+            segments.add(new Literal(literal.toString()));
+        }
+
+        return new Template(input, segments.toArray(new Segment[segments.size()]));
+    }
+
+    /**
+     * Find the end token matching a start token, allowing for nested variables.
+     *
+     * @return The index of the end token, or <tt>-1</tt> if there is none.
+     */
+    private static int findEnd(final String input, int i) {
+        int depth = 1;
+        int length = input.length();
+
+        while (i < length) {
+            if (input.charAt(i) == ESCAPE_CHAR && input.startsWith(START_TOKEN, i + 1)) {
+                i += 1 + START_TOKEN.length();
+            }
+            else if (input.startsWith(START_TOKEN, i)) {
+                depth++;
+                i += START_TOKEN.length();
+            }
+            else if (input.startsWith(END_TOKEN, i)) {
+                if (--depth == 0) {
+                    return i;
+                }
+                i += END_TOKEN.length();
+            }
+            else {
+                i++;
+            }
+        }
+
+        return -1;
+    }
+
+    private static Segment variable(final String body, final String source) {
+        // The separator may only be at the top level, not within a nested variable
+        int i = body.indexOf(DEFAULT_SEPARATOR);
+        int nested = body.indexOf(START_TOKEN);
+        if (i != -1 && (nested == -1 || i < nested)) {
+            return new Variable(body.substring(0, i), compile(body.substring(i + DEFAULT_SEPARATOR.length())), source);
+        }
+        return new Variable(body, null, source);
+    }
+
+    //
+    // Segments
+    //
+
+    private static interface Segment
+    {
+        void render(Resolver resolver, StringBuilder buff, int depth) throws Exception;
+    }
+
+    private static class Literal
+        implements Segment
+    {
+        private final String text;
+
+        private Literal(final String text) {
+            this.text = text;
+        }
+
+        public void render(final Resolver resolver, final StringBuilder buff, final int depth) {
+            buff.append(text);
+        }
+    }
+
+    private static class Variable
+        implements Segment
+    {
+        private final String name;
+
+        private final Template defaultValue;
+
+        private final String source;
+
+        private Variable(final String name, final Template defaultValue, final String source) {
+            this.name = name;
+            // default value may be null
+            this.defaultValue = defaultValue;
+            this.source = source;
+        }
+
+        public void render(final Resolver resolver, final StringBuilder buff, final int depth) throws Exception {
+            append(resolver.resolve(name), resolver, buff, depth);
+        }
+
+        private void append(final Object value, final Resolver resolver, final StringBuilder buff, final int depth)
+            throws Exception
+        {
+            if (value == null) {
+                if (defaultValue != null) {
+                    defaultValue.render(resolver, buff, depth);
+                }
+                else {
+                    buff.append(source);
+                }
+                return;
+            }
+
+            String text = value.toString();
+            if (depth < MAX_DEPTH && text.contains(START_TOKEN)) {
+                compile(text).render(resolver, buff, depth + 1);
+            }
+            else {
+                buff.append(text);
+            }
+        }
+    }
+}
@@ -26,23 +26,30 @@ import org.slf4j.Logger;
 import org.sonatype.gossip.Log;
 import org.sonatype.gshell.util.IllegalAnnotationError;
 import org.sonatype.gshell.util.cli2.handler.Handler;
-import org.sonatype.gshell.util.cli2.handler.Handlers;
 import org.sonatype.gshell.util.i18n.MessageSource;
 import org.sonatype.gshell.util.i18n.ResourceBundleMessageSource;
 import org.sonatype.gshell.util.setter.SetterFactory;
 import org.sonatype.gshell.util.yarn.Yarn;
 
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * Processes an object for cli annotations.
+ * <p/>
+ * The annotated members of each class, and the {@link Options} for each combination of bean classes, are discovered
+ * once and cached; adding a bean only binds the cached members to the instance.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.3
@@ -51,6 +58,27 @@ public class CliProcessor
 {
     private static final Logger log = Log.getLogger(CliProcessor.class);
 
+    /**
+     * Annotated members by class; guarded by itself.
+     * <p/>
+     * Classes are weakly referenced so the cache does not keep them (or their class loader) from being unloaded.  The
+     * members refer back to their class, so they are only softly referenced; otherwise no entry could ever be removed.
+     */
+    private static final Map<Class<?>, Reference<List<Member>>> members = new WeakHashMap<Class<?>, Reference<List<Member>>>();
+
+    /**
+     * Options for each list of bean classes they were created for, as a tree of weakly referenced classes in order;
+     * guarded by itself.
+     */
+    private static final OptionsNode optionsCache = new OptionsNode();
+
+    /**
+     * Prefix of the placeholders for non-string arguments; can not be mistaken for an option.
+     */
+    private static final String TYPED_TOKEN = "\u0000";
+
+    private final List<Class<?>> beanTypes = new ArrayList<Class<?>>();
+
     private final List<OptionDescriptor> optionDescriptors = new ArrayList<OptionDescriptor>();
 
     private final List<ArgumentDescriptor> argumentDescriptors = new ArrayList<ArgumentDescriptor>();
@@ -118,15 +146,10 @@ public class CliProcessor
     private void discoverDescriptors(final Object bean) {
         assert bean != null;
 
-        // Recursively process all the methods/fields (@Inherited won't work here)
-        for (Class<?> type = bean.getClass(); type != null; type = type.getSuperclass()) {
-            for (Method method : type.getDeclaredMethods()) {
-                discoverDescriptor(bean, method);
-            }
-            for (Field field : type.getDeclaredFields()) {
-                discoverDescriptor(bean, field);
-            }
+        for (Member member : getMembers(bean.getClass())) {
+            addDescriptor(bean, member);
         }
+        beanTypes.add(bean.getClass());
 
         // Sanity check the argument indexes
         for (int i = 0; i < argumentDescriptors.size(); i++) {
@@ -136,8 +159,36 @@ public class CliProcessor
         }
     }
 
-    private void discoverDescriptor(final Object bean, final AnnotatedElement element) {
-        assert bean != null;
+    private static List<Member> getMembers(final Class<?> type) {
+        synchronized (members) {
+            Reference<List<Member>> ref = members.get(type);
+            List<Member> result = ref != null ? ref.get() : null;
+            if (result == null) {
+                result = discoverMembers(type);
+                members.put(type, new SoftReference<List<Member>>(result));
+            }
+            return result;
+        }
+    }
+
+    private static List<Member> discoverMembers(final Class<?> root) {
+        List<Member> result = new ArrayList<Member>();
+
+        // Recursively process all the methods/fields (@Inherited won't work here)
+        for (Class<?> type = root; type != null; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                discoverMember(result, method);
+            }
+            for (Field field : type.getDeclaredFields()) {
+                discoverMember(result, field);
+            }
+        }
+
+        return result;
+    }
+
+    private static void discoverMember(final List<Member> result, final AnnotatedElement element) {
+        assert result != null;
         assert element != null;
 
         Option opt = element.getAnnotation(Option.class);
@@ -149,8 +200,22 @@ public class CliProcessor
 
         if (opt != null) {
             log.trace("Discovered @Option for: {}", element);
+            result.add(new Member(element, opt));
+        }
+        else if (arg != null) {
+            log.trace("Discovered @Argument for: {}", element);
+            result.add(new Member(element, arg));
+        }
+    }
+
+    private void addDescriptor(final Object bean, final Member member) {
+        assert bean != null;
+        assert member != null;
 
-            OptionDescriptor desc = new OptionDescriptor(opt, SetterFactory.create(element, bean));
+        AnnotatedElement element = member.accessor.getElement();
+
+        if (member.spec instanceof Option) {
+            OptionDescriptor desc = new OptionDescriptor((Option) member.spec, member.accessor.bind(bean));
 
             // If the type is boolean, and its marked as optional or requires args, complain to use Boolean instead
             if (desc.getSetter().getType() == boolean.class) {
@@ -171,10 +236,9 @@ public class CliProcessor
 
             optionDescriptors.add(desc);
         }
-        else if (arg != null) {
-            log.trace("Discovered @Argument for: {}", element);
-
-            ArgumentDescriptor desc = new ArgumentDescriptor(arg, SetterFactory.create(element, bean));
+        else {
+            Argument arg = (Argument) member.spec;
+            ArgumentDescriptor desc = new ArgumentDescriptor(arg, member.accessor.bind(bean));
             int index = arg.index();
 
             // Make sure the argument will fit in the list
@@ -190,6 +254,21 @@ public class CliProcessor
         }
     }
 
+    /**
+     * An element annotated with {@link Option} or {@link Argument}.
+     */
+    private static class Member
+    {
+        private final SetterFactory.Accessor accessor;
+
+        private final Object spec;
+
+        private Member(final AnnotatedElement element, final Object spec) {
+            this.accessor = SetterFactory.accessor(element);
+            this.spec = spec;
+        }
+    }
+
     //
     // Processing
     //
@@ -230,7 +309,47 @@ public class CliProcessor
 
     public void process(final String... args) throws Exception {
         assert args != null;
+        process(args, null);
+    }
+
+    /**
+     * Process arguments which may not all be strings.
+     * <p/>
+     * Non-string arguments are parsed as placeholder tokens and their values are handed to the {@link Handler} as-is,
+     * so members of a matching type are set without a round trip through a string and a converter.
+     *
+     * @since 2.6.6
+     */
+    public void process(final Object... args) throws Exception {
+        assert args != null;
+
+        String[] strings = new String[args.length];
+        Map<String, Object> typed = null;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == null || args[i] instanceof String) {
+                strings[i] = String.valueOf(args[i]);
+            }
+            else {
+                if (typed == null) {
+                    typed = new HashMap<String, Object>();
+                }
+                strings[i] = TYPED_TOKEN + i;
+                typed.put(strings[i], args[i]);
+            }
+        }
+
+        process(strings, typed);
+    }
+
+    private static Object valueOf(final String value, final Map<String, Object> typed) {
+        if (typed != null && typed.containsKey(value)) {
+            return typed.get(value);
+        }
+        return value;
+    }
 
+    private void process(final String[] args, final Map<String, Object> typed) throws Exception {
         CliParser parser = null;
 
         switch (flavor) {
@@ -253,7 +372,7 @@ public class CliProcessor
             throw new ProcessingException(Messages.UNDEFINED_OPTION.format(e.getOption()));
         }
         catch (MissingArgumentException e) {
-            OptionDescriptor desc = ((Opt)e.getOption()).getDescriptor();
+            OptionDescriptor desc = getDescriptor((Opt) e.getOption());
             throw new ProcessingException(Messages.MISSING_OPERAND.format(desc.getSyntax(), desc.renderToken(messages)));
         }
         catch (ParseException e) {
@@ -267,7 +386,7 @@ public class CliProcessor
             Opt opt = (Opt)tmp;
             log.trace("Processing option: {}", opt);
 
-            OptionDescriptor desc = opt.getDescriptor();
+            OptionDescriptor desc = getDescriptor(opt);
             present.add(desc);
 
             // Track the override, this is used to handle when --help present, but a required arg/opt is missing
@@ -275,17 +394,17 @@ public class CliProcessor
                 override = desc.getOverride();
             }
 
-            Handler handler = Handlers.create(desc);
+            Handler handler = desc.getHandler();
             String[] values = opt.getValues();
 
             if (values == null || values.length == 0) {
                 // Set the value
-                handler.handle(opt.getValue());
+                handler.handle(valueOf(opt.getValue(), typed));
             }
             else {
                 // Set the values
                 for (String value : values) {
-                    handler.handle(value);
+                    handler.handle(valueOf(value, typed));
                 }
             }
         }
@@ -293,7 +412,8 @@ public class CliProcessor
         log.trace("Remaining arguments: {}", cl.getArgList());
 
         int i = 0;
-        for (final String arg : cl.getArgs()) {
+        for (final String tmp : cl.getArgs()) {
+            Object arg = valueOf(tmp, typed);
             log.trace("Processing argument: {}", arg);
 
             // Check if we allow an argument or we have overflowed
@@ -311,8 +431,7 @@ public class CliProcessor
             }
 
             // Set the value
-            Handler handler = Handlers.create(desc);
-            handler.handle(arg);
+            desc.getHandler().handle(arg);
         }
 
         // Check for any required arguments which were not present
@@ -335,23 +454,61 @@ public class CliProcessor
     }
 
     private Options createOptions() {
-        Options opts = new Options();
+        // Options only depend on the annotations, so they can be shared by processors for the same bean types
+        synchronized (optionsCache) {
+            OptionsNode node = optionsCache;
+            for (Class<?> type : beanTypes) {
+                OptionsNode child = node.children.get(type);
+                if (child == null) {
+                    child = new OptionsNode();
+                    node.children.put(type, child);
+                }
+                node = child;
+            }
 
-        for (OptionDescriptor opt : optionDescriptors) {
-            opts.addOption(new Opt(opt));
+            if (node.options == null) {
+                node.options = new Options();
+                for (int i = 0; i < optionDescriptors.size(); i++) {
+                    node.options.addOption(new Opt(optionDescriptors.get(i), i));
+                }
+            }
+            return node.options;
         }
+    }
+
+    /**
+     * Node of the options cache.  Does not refer to its own class, so the weak key of its parent can be cleared.
+     */
+    private static class OptionsNode
+    {
+        private final Map<Class<?>, OptionsNode> children = new WeakHashMap<Class<?>, OptionsNode>();
+
+        private Options options;
+    }
 
-        return opts;
+    private OptionDescriptor getDescriptor(final Opt opt) {
+        assert opt != null;
+        OptionDescriptor desc = optionDescriptors.get(opt.getIndex());
+
+        // Members released from the cache and discovered again are not guaranteed to be in the same order
+        if (!opt.isFor(desc)) {
+            for (OptionDescriptor tmp : optionDescriptors) {
+                if (opt.isFor(tmp)) {
+                    return tmp;
+                }
+            }
+        }
+        return desc;
     }
 
     private static class Opt
         extends org.apache.commons.cli.Option
     {
-        private final OptionDescriptor desc;
+        private final int index;
 
-        private Opt(final OptionDescriptor opt) throws IllegalArgumentException {
+        private Opt(final OptionDescriptor opt, final int index) throws IllegalArgumentException {
             super(opt.getName(), opt.getDescription());
-            this.desc = opt;
+            this.index = index;
 
             setLongOpt(opt.getLongName());
             setArgName(opt.getToken());
@@ -361,8 +518,19 @@ public class CliProcessor
             setOptionalArg(opt.isArgumentOptional());
         }
 
-        public OptionDescriptor getDescriptor() {
-            return desc;
+        /**
+         * The index of the {@link OptionDescriptor} in the processor.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        private boolean isFor(final OptionDescriptor desc) {
+            return same(getOpt(), desc.getName()) && same(getLongOpt(), desc.getLongName());
+        }
+
+        private static boolean same(final String a, final String b) {
+            return a == null ? b == null : a.equals(b);
         }
 
         public String toString() {
@@ -16,6 +16,9 @@
 package org.sonatype.gshell.util.cli2.handler;
 
 import org.sonatype.gshell.util.cli2.CliDescriptor;
+import org.sonatype.gshell.util.converter.Converters;
+
+import java.util.Collection;
 
 /**
  * Handler which uses a {@link org.sonatype.gshell.util.converter.Converter} to coerce types.
@@ -35,6 +38,27 @@ public class DefaultHandler
         set(arg);
     }
 
+    /**
+     * Values which already match the type of the setter are set as-is; the elements of a collection given to a
+     * multi-valued setter are handled individually.
+     *
+     * @since 2.6.6
+     */
+    @Override
+    public void handle(final Object arg) throws Exception {
+        if (Converters.isInstance(getSetter().getType(), arg)) {
+            set(arg);
+        }
+        else if (arg instanceof Collection && getSetter().isMultiValued()) {
+            for (Object element : (Collection<?>) arg) {
+                handle(element);
+            }
+        }
+        else {
+            super.handle(arg);
+        }
+    }
+
     @Override
     public String getDefaultToken() {
         return "VAL"; // TODO: i18n
@@ -61,5 +61,14 @@ public abstract class Handler
 
     public abstract void handle(String arg) throws Exception;
 
+    /**
+     * Handle an argument which was not given as a string; by default the value is handled as its string form.
+     *
+     * @since 2.6.6
+     */
+    public void handle(final Object arg) throws Exception {
+        handle(arg == null || arg instanceof String ? (String) arg : String.valueOf(arg));
+    }
+
     public abstract String getDefaultToken();
 }
\ No newline at end of file
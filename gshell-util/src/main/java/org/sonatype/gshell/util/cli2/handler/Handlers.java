@@ -18,7 +18,11 @@ package org.sonatype.gshell.util.cli2.handler;
 import org.sonatype.gshell.util.IllegalAnnotationError;
 import org.sonatype.gshell.util.cli2.CliDescriptor;
 
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Provides access to handlers.
@@ -28,9 +32,28 @@ import java.lang.reflect.Constructor;
  */
 public class Handlers
 {
+    /**
+     * Custom handler constructors by type; guarded by itself.  Types are weakly referenced, and as constructors refer
+     * back to their type, they are softly referenced.
+     */
+    private static final Map<Class<? extends Handler>, Reference<Constructor<? extends Handler>>> factories =
+        new WeakHashMap<Class<? extends Handler>, Reference<Constructor<? extends Handler>>>();
+
     private static Constructor<? extends Handler> createHandlerFactory(final Class<? extends Handler> type) {
         assert type != null;
 
+        synchronized (factories) {
+            Reference<Constructor<? extends Handler>> ref = factories.get(type);
+            Constructor<? extends Handler> factory = ref != null ? ref.get() : null;
+            if (factory == null) {
+                factory = lookupHandlerFactory(type);
+                factories.put(type, new SoftReference<Constructor<? extends Handler>>(factory));
+            }
+            return factory;
+        }
+    }
+
+    private static Constructor<? extends Handler> lookupHandlerFactory(final Class<? extends Handler> type) {
         try {
             return type.getConstructor(CliDescriptor.class);
         }
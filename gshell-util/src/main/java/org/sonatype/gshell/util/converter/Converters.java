@@ -234,6 +234,23 @@ public class Converters
         return findConverterOrEditor(type) != null;
     }
 
+    /**
+     * Check if a value can be used as the given type without conversion; primitive types accept their wrappers.
+     *
+     * @since 2.6.6
+     */
+    public static boolean isInstance(final Class type, final Object value) {
+        assert type != null;
+
+        if (value == null) {
+            return false;
+        }
+        if (type.isPrimitive()) {
+            return PRIMITIVE_TO_WRAPPER.get(type) == value.getClass();
+        }
+        return type.isInstance(value);
+    }
+
     private static PropertyEditor findConverterOrEditor(final Type type) {
         Converter converter = findConverter(type);
         if (converter != null) {
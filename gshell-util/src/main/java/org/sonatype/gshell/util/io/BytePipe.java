@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * Bounded in-memory byte channel between a writing and a reading thread.
+ * <p/>
+ * Backed by a fixed size ring buffer; writers block while the buffer is full and readers block while it is empty.
+ * Closing the output signals EOF to the reader once the buffer drains; closing the input makes further writes fail,
+ * so a writer is never left blocked on a reader which has gone away.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class BytePipe
+{
+    public static final int DEFAULT_SIZE = 64 * 1024;
+
+    private final byte[] buffer;
+
+    /**
+     * Index of the next byte to read.
+     */
+    private int head;
+
+    /**
+     * Number of readable bytes in the buffer.
+     */
+    private int count;
+
+    private boolean writerClosed;
+
+    private boolean readerClosed;
+
+    private final InputStream input = new PipeInputStream();
+
+    private final OutputStream output = new PipeOutputStream();
+
+    public BytePipe(final int size) {
+        assert size > 0;
+        this.buffer = new byte[size];
+    }
+
+    public BytePipe() {
+        this(DEFAULT_SIZE);
+    }
+
+    public InputStream getInputStream() {
+        return input;
+    }
+
+    public OutputStream getOutputStream() {
+        return output;
+    }
+
+    public synchronized int available() {
+        return count;
+    }
+
+    public synchronized void write(final byte[] b, int off, int len) throws IOException {
+        assert b != null;
+
+        while (len > 0) {
+            while (count == buffer.length && !readerClosed && !writerClosed) {
+                await();
+            }
+            ensureWritable();
+
+            // Copy as much as fits, in at most two chunks around the end of the ring
+            int tail = (head + count) % buffer.length;
+            int n = Math.min(len, buffer.length - count);
+            int first = Math.min(n, buffer.length - tail);
+            System.arraycopy(b, off, buffer, tail, first);
+            if (first < n) {
+                System.arraycopy(b, off + first, buffer, 0, n - first);
+            }
+
+            count += n;
+            off += n;
+            len -= n;
+            notifyAll();
+        }
+    }
+
+    public synchronized void write(final int b) throws IOException {
+        while (count == buffer.length && !readerClosed && !writerClosed) {
+            await();
+        }
+        ensureWritable();
+
+        buffer[(head + count) % buffer.length] = (byte) b;
+        count++;
+        notifyAll();
+    }
+
+    private void ensureWritable() throws IOException {
+        if (writerClosed) {
+            throw new IOException("Pipe closed");
+        }
+        if (readerClosed) {
+            throw new IOException("Pipe broken; reader closed");
+        }
+    }
+
+    /**
+     * @return The number of bytes read, or <tt>-1</tt> on EOF.
+     */
+    public synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+        assert b != null;
+
+        if (len == 0) {
+            return 0;
+        }
+        if (!awaitReadable()) {
+            return -1;
+        }
+
+        int n = Math.min(len, count);
+        int first = Math.min(n, buffer.length - head);
+        System.arraycopy(buffer, head, b, off, first);
+        if (first < n) {
+            System.arraycopy(buffer, 0, b, off + first, n - first);
+        }
+
+        head = (head + n) % buffer.length;
+        count -= n;
+        notifyAll();
+
+        return n;
+    }
+
+    public synchronized int read() throws IOException {
+        if (!awaitReadable()) {
+            return -1;
+        }
+
+        int b = buffer[head] & 0xFF;
+        head = (head + 1) % buffer.length;
+        count--;
+        notifyAll();
+
+        return b;
+    }
+
+    /**
+     * @return False on EOF.
+     */
+    private boolean awaitReadable() throws IOException {
+        while (count == 0 && !writerClosed && !readerClosed) {
+            await();
+        }
+        if (readerClosed) {
+            throw new IOException("Pipe closed");
+        }
+        return count != 0;
+    }
+
+    private void await() throws InterruptedIOException {
+        try {
+            wait();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * Signal that no more bytes will be written.
+     */
+    public synchronized void closeWriter() {
+        writerClosed = true;
+        notifyAll();
+    }
+
+    /**
+     * Signal that no more bytes will be read; pending and future writes fail.
+     */
+    public synchronized void closeReader() {
+        readerClosed = true;
+        count = 0;
+        notifyAll();
+    }
+
+    /**
+     * Check if the reader has gone away; once it has, writes fail.
+     */
+    public synchronized boolean isReaderClosed() {
+        return readerClosed;
+    }
+
+    private class PipeInputStream
+        extends InputStream
+    {
+        @Override
+        public int read() throws IOException {
+            return BytePipe.this.read();
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return BytePipe.this.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return BytePipe.this.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeReader();
+        }
+    }
+
+    private class PipeOutputStream
+        extends OutputStream
+    {
+        @Override
+        public void write(final int b) throws IOException {
+            BytePipe.this.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            BytePipe.this.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeWriter();
+        }
+    }
+}
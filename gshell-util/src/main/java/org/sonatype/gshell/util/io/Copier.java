@@ -15,17 +15,30 @@
  */
 package org.sonatype.gshell.util.io;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Stream/Reader/Writer copy helpers.
  *
  * Based on plexus-utils IOUtil.
+ * <p/>
+ * Byte copies between files, or between a file and a socket, are done with {@link FileChannel} transfers, which
+ * the operating system may perform without copying through the heap.  Other byte copies use pooled buffers.  Byte
+ * copies return the number of bytes copied, for reporting transfer rates with {@link #rate}.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.6.4
@@ -34,11 +47,25 @@ public class Copier
 {
     private static final int DEFAULT_BUFFER_SIZE = 1024 * 4;
 
+    /**
+     * Size of pooled buffers, and the most transferred by a single channel transfer call.
+     */
+    private static final int POOLED_BUFFER_SIZE = 1024 * 64;
+
+    /**
+     * Idle pooled buffers; each is only ever used by a single thread at a time.
+     */
+    private static final Queue<byte[]> arrays = new ConcurrentLinkedQueue<byte[]>();
+
+    private static final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+
     /**
      * Copy bytes from an <code>InputStream</code> to an <code>OutputStream</code>.
+     *
+     * @see #transfer(InputStream, OutputStream)
      */
     public static void copy(final InputStream input, final OutputStream output) throws IOException {
-        copy(input, output, DEFAULT_BUFFER_SIZE);
+        transfer(input, output);
     }
 
     /**
@@ -47,11 +74,158 @@ public class Copier
      * @param bufferSize Size of internal buffer to use.
      */
     public static void copy(final InputStream input, final OutputStream output, final int bufferSize) throws IOException {
-        final byte[] buffer = new byte[bufferSize];
+        transfer(input, output, bufferSize);
+    }
+
+    /**
+     * Copy bytes from an <code>InputStream</code> to an <code>OutputStream</code>.
+     * <p/>
+     * Uses a channel transfer when either end is a file stream.
+     *
+     * @return The number of bytes copied.
+     * @since 2.6.6
+     */
+    public static long transfer(final InputStream input, final OutputStream output) throws IOException {
+        FileChannel source = input instanceof FileInputStream ? seekable(((FileInputStream) input).getChannel()) : null;
+        FileChannel target = output instanceof FileOutputStream ? seekable(((FileOutputStream) output).getChannel()) : null;
+
+        if (source != null || target != null) {
+            return transfer(source != null ? source : Channels.newChannel(input),
+                target != null ? target : Channels.newChannel(output));
+        }
+
+        byte[] buffer = arrays.poll();
+        if (buffer == null) {
+            buffer = new byte[POOLED_BUFFER_SIZE];
+        }
+        try {
+            return transfer(input, output, buffer);
+        }
+        finally {
+            arrays.offer(buffer);
+        }
+    }
+
+    /**
+     * Copy bytes from an <code>InputStream</code> to an <code>OutputStream</code>.
+     *
+     * @param bufferSize Size of internal buffer to use.
+     * @return The number of bytes copied.
+     * @since 2.6.6
+     */
+    public static long transfer(final InputStream input, final OutputStream output, final int bufferSize) throws IOException {
+        return transfer(input, output, new byte[bufferSize]);
+    }
+
+    private static long transfer(final InputStream input, final OutputStream output, final byte[] buffer) throws IOException {
+        long count = 0;
         int n;
         while (-1 != (n = input.read(buffer))) {
             output.write(buffer, 0, n);
+            count += n;
+        }
+        return count;
+    }
+
+    /**
+     * Copy bytes from a blocking <code>ReadableByteChannel</code> to a <code>WritableByteChannel</code>.
+     * <p/>
+     * Uses a channel transfer when either end is a {@link FileChannel} on a regular file, such as between a file and
+     * a {@link java.nio.channels.SocketChannel}; else copies through a pooled direct buffer.
+     *
+     * @return The number of bytes copied.
+     * @since 2.6.6
+     */
+    public static long transfer(final ReadableByteChannel input, final WritableByteChannel output) throws IOException {
+        long count = 0;
+
+        FileChannel file;
+        if (input instanceof FileChannel && (file = seekable((FileChannel) input)) != null) {
+            count = transferTo(file, output);
+        }
+        else if (output instanceof FileChannel && (file = seekable((FileChannel) output)) != null) {
+            count = transferFrom(input, file);
+        }
+
+        // Picks up anything a transfer could not, such as data appended to a file while copying
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(POOLED_BUFFER_SIZE);
+        }
+        try {
+            while (input.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    count += output.write(buffer);
+                }
+                buffer.clear();
+            }
+            return count;
+        }
+        finally {
+            buffer.clear();
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * @return The given channel, or null if it can not be positioned (ie. it is a pipe) and so can not transfer.
+     */
+    private static FileChannel seekable(final FileChannel channel) {
+        try {
+            channel.position();
+            return channel;
+        }
+        catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Transfer the remainder of a file, leaving the source positioned after it as if it had been read.
+     */
+    private static long transferTo(final FileChannel input, final WritableByteChannel output) throws IOException {
+        long start = input.position();
+        long position = start;
+        long size = input.size();
+        while (position < size) {
+            long n = input.transferTo(position, Math.min(size - position, POOLED_BUFFER_SIZE), output);
+            if (n <= 0) {
+                // The file was truncated, or the target can not take more
+                break;
+            }
+            position += n;
+        }
+        input.position(position);
+        return position - start;
+    }
+
+    /**
+     * Transfer until the input is exhausted, leaving the target positioned after the transferred bytes as if they
+     * had been written.
+     */
+    private static long transferFrom(final ReadableByteChannel input, final FileChannel output) throws IOException {
+        long start = output.position();
+        long position = start;
+        long n;
+        while ((n = output.transferFrom(input, position, POOLED_BUFFER_SIZE)) > 0) {
+            position += n;
+        }
+        output.position(position);
+        return position - start;
+    }
+
+    /**
+     * @param bytes The number of bytes copied.
+     * @param nanos The time taken to copy them, in nanoseconds.
+     * @return The transfer rate, in bytes per second.
+     * @since 2.6.6
+     */
+    public static long rate(final long bytes, final long nanos) {
+        if (nanos <= 0) {
+            return 0;
         }
+        return (long) (bytes * 1e9 / nanos);
     }
 
     /**
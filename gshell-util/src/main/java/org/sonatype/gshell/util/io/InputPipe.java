@@ -23,12 +23,13 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 
 /**
  * An input pipe which can be interrupted.
+ * <p/>
+ * Characters read from the terminal are handed over in chunks through a {@link BytePipe}, so pasted or piped input
+ * moves in bulk instead of byte by byte.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.0
@@ -39,7 +40,14 @@ public class InputPipe
 {
     private static final Logger log = LoggerFactory.getLogger(InputPipe.class);
 
-    private final BlockingQueue<Integer> queue = new ArrayBlockingQueue<Integer>(1024);
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Largest number of characters handed over at once.
+     */
+    private static final int CHUNK_SIZE = 256;
+
+    private final BytePipe pipe = new BytePipe(BUFFER_SIZE);
 
     private final Terminal term;
 
@@ -73,6 +81,7 @@ public class InputPipe
             log.trace("Closing");
             Thread.currentThread().interrupt();
             running = false;
+            pipe.closeWriter();
         }
     }
     
@@ -80,6 +89,18 @@ public class InputPipe
         return term.readCharacter(streams.in);
     }
 
+    /**
+     * @return True if more input can be read without blocking.
+     */
+    private boolean hasMore() {
+        try {
+            return streams.in.available() > 0;
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
     @Override
     public void start() {
         super.start();
@@ -97,6 +118,9 @@ public class InputPipe
         log.trace("Running");
         running = true;
 
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        int size = 0;
+
         try {
             startSignal.countDown();
             
@@ -106,10 +130,14 @@ public class InputPipe
 
                     switch (c) {
                         case -1:
-                            queue.put(c);
+                            write(chunk, size);
+                            pipe.closeWriter();
                             return;
 
                         case 3: // CTRL-C
+                            // Input typed before the interrupt is handed over first
+                            write(chunk, size);
+                            size = 0;
                             interrupt = interruptHandler.interrupt();
                             break;
 
@@ -118,7 +146,13 @@ public class InputPipe
 //                            break;
                     }
 
-                    queue.put(c);
+                    chunk[size++] = (byte) c;
+
+                    // Keep collecting while input is pending, so a paste is handed over in bulk
+                    if (size == chunk.length || !hasMore()) {
+                        write(chunk, size);
+                        size = 0;
+                    }
                 }
                 catch (IOException e) {
                     log.warn("Pipe read error", e);
@@ -148,6 +182,13 @@ public class InputPipe
         log.trace("Stopped");
     }
 
+    private void write(final byte[] chunk, final int size) throws IOException {
+        // Once closed, input is no longer handed over
+        if (size != 0 && running) {
+            pipe.write(chunk, 0, size);
+        }
+    }
+
     public InputStream getInputStream() {
         return new PipeInputStream();
     }
@@ -162,42 +203,28 @@ public class InputPipe
             }
         }
 
-        private int read(final boolean wait) throws IOException {
-            if (!running) {
-                return -1;
-            }
-
-            checkInterrupted();
-
-            Integer i;
-            if (wait) {
-                try {
-                    // Wait for the pipe to actually start consuming bytes before we start taking
-                    startSignal.await();
-
-                    // Take a byte for the queue
-                    i = queue.take();
-                }
-                catch (InterruptedException e) {
-                    throw new InterruptedIOException();
-                }
-                
-                checkInterrupted();
+        private void awaitStart() throws InterruptedIOException {
+            try {
+                // Wait for the pipe to actually start consuming bytes before we start taking
+                startSignal.await();
             }
-            else {
-                i = queue.poll();
+            catch (InterruptedException e) {
+                throw new InterruptedIOException();
             }
+        }
 
-            if (i == null) {
+        @Override
+        public int read() throws IOException {
+            if (!running) {
                 return -1;
             }
 
-            return i;
-        }
+            checkInterrupted();
+            awaitStart();
+            int i = pipe.read();
+            checkInterrupted();
 
-        @Override
-        public int read() throws IOException {
-            return read(true);
+            return i;
         }
 
         @Override
@@ -211,25 +238,23 @@ public class InputPipe
             else if (len == 0) {
                 return 0;
             }
-
-            int nb = 1;
-            int i = read(true);
-            if (i < 0) {
+            else if (!running) {
                 return -1;
             }
 
-            b[off++] = (byte) i;
-            while (nb < len) {
-                i = read(false);
-                if (i < 0) {
-                    return nb;
-                }
-                
-                b[off++] = (byte) i;
-                nb++;
-            }
+            checkInterrupted();
+            awaitStart();
+
+            // Blocks for the first byte only, then takes whatever else is already buffered
+            int nb = pipe.read(b, off, len);
+            checkInterrupted();
 
             return nb;
         }
+
+        @Override
+        public int available() throws IOException {
+            return pipe.available();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.io;
+
+import org.slf4j.Logger;
+import org.sonatype.gossip.Log;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@link StreamPumper}s on a bounded pool of reused daemon threads, and keeps metrics of the pumping.
+ * <p/>
+ * At most {@link #MAX_THREADS} threads are pooled; as a pumper holds its thread until its stream is exhausted, a
+ * pumper which finds them all busy is given a thread of its own rather than being queued, so that a child process can
+ * never block on output nobody is reading.  Such overflow threads are not reused; they are counted, see
+ * {@link #getOverflow()}, and logged as a sign {@link #MAX_THREADS} is too low.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ * @since 2.6.6
+ */
+public class PumpExecutor
+{
+    public static final String MAX_THREADS = PumpExecutor.class.getName() + ".maxThreads";
+
+    public static final int DEFAULT_MAX_THREADS = 32;
+
+    private static final Logger log = Log.getLogger(PumpExecutor.class);
+
+    private static PumpExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong overflow = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLong latency = new AtomicLong();
+
+    public PumpExecutor(final int maxThreads) {
+        assert maxThreads > 0;
+
+        final ThreadFactory threads = new DaemonThreadFactory();
+        executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), threads,
+            new RejectedExecutionHandler()
+            {
+                public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+                    log.warn("All {} pump threads busy; using an unpooled thread ({} so far)",
+                        executor.getMaximumPoolSize(), overflow.incrementAndGet());
+                    threads.newThread(task).start();
+                }
+            });
+    }
+
+    public static synchronized PumpExecutor get() {
+        if (instance == null) {
+            instance = new PumpExecutor(Integer.getInteger(MAX_THREADS, DEFAULT_MAX_THREADS));
+        }
+
+        return instance;
+    }
+
+    /**
+     * Start pumping.
+     *
+     * @return Completes when the pumper has finished.
+     */
+    public Future<?> execute(final StreamPumper pumper) {
+        assert pumper != null;
+
+        final long submitted = System.nanoTime();
+        FutureTask<Object> task = new FutureTask<Object>(new Runnable()
+        {
+            public void run() {
+                latency.addAndGet(System.nanoTime() - submitted);
+                active.incrementAndGet();
+                try {
+                    pumper.run();
+                }
+                finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                    bytes.addAndGet(pumper.getCount());
+                }
+            }
+        }, null);
+
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * @return The number of pumpers currently running.
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * @return The number of pumpers which have finished.
+     */
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * @return The number of pumpers which found all pooled threads busy and were given a thread of their own.
+     */
+    public long getOverflow() {
+        return overflow.get();
+    }
+
+    /**
+     * @return The number of bytes copied by finished pumpers.
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * @return The average time, in nanoseconds, from a pumper being submitted until it started running.
+     */
+    public long getAverageLatency() {
+        long count = completed.get() + active.get();
+        return count == 0 ? 0 : latency.get() / count;
+    }
+
+    /**
+     * @return The number of pooled threads, busy or idle.
+     */
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    @Override
+    public String toString() {
+        return "PumpExecutor{" +
+            "active=" + getActive() +
+            ", completed=" + getCompleted() +
+            ", overflow=" + getOverflow() +
+            ", bytes=" + getBytes() +
+            ", averageLatency=" + getAverageLatency() +
+            ", poolSize=" + getPoolSize() +
+            '}';
+    }
+
+    private static class DaemonThreadFactory
+        implements ThreadFactory
+    {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        public Thread newThread(final Runnable task) {
+            Thread thread = new Thread(task, "pump-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
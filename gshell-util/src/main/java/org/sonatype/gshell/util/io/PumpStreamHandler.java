@@ -24,6 +24,9 @@ import java.io.OutputStream;
 
 /**
  * Copies standard output and error of children streams to standard output and error of the parent.
+ * <p/>
+ * Pumpers run on a {@link PumpExecutor}, by default the shared one, so handling many short-lived children does not
+ * create threads for each.
  *
  * @since 2.0
  */
@@ -31,15 +34,26 @@ public class PumpStreamHandler
 {
     private final StreamSet streams;
 
-    private Thread outputThread;
+    private final PumpExecutor executor;
 
-    private Thread errorThread;
+    private StreamPumper outputPump;
+
+    private StreamPumper errorPump;
 
     private StreamPumper inputPump;
 
-    public PumpStreamHandler(final StreamSet streams) {
+    /**
+     * @since 2.6.6
+     */
+    public PumpStreamHandler(final StreamSet streams, final PumpExecutor executor) {
         assert streams != null;
         this.streams = streams;
+        assert executor != null;
+        this.executor = executor;
+    }
+
+    public PumpStreamHandler(final StreamSet streams) {
+        this(streams, PumpExecutor.get());
     }
 
     /**
@@ -92,18 +106,16 @@ public class PumpStreamHandler
      * Start pumping the streams.
      */
     public void start() {
-        if (outputThread != null) {
-            outputThread.start();
+        if (outputPump != null) {
+            executor.execute(outputPump);
         }
 
-        if (errorThread != null) {
-            errorThread.start();
+        if (errorPump != null) {
+            executor.execute(errorPump);
         }
 
         if (inputPump != null) {
-            Thread inputThread = new Thread(inputPump);
-            inputThread.setDaemon(true);
-            inputThread.start();
+            executor.execute(inputPump);
         }
     }
 
@@ -111,18 +123,18 @@ public class PumpStreamHandler
      * Stop pumping the streams.
      */
     public void stop() {
-        if (outputThread != null) {
+        if (outputPump != null) {
             try {
-                outputThread.join();
+                outputPump.waitFor();
             }
             catch (InterruptedException e) {
                 // ignore
             }
         }
 
-        if (errorThread != null) {
+        if (errorPump != null) {
             try {
-                errorThread.join();
+                errorPump.waitFor();
             }
             catch (InterruptedException e) {
                 // ignore
@@ -143,7 +155,7 @@ public class PumpStreamHandler
         assert in != null;
         assert out != null;
 
-        outputThread = createPump(in, out);
+        outputPump = createPumper(in, out);
     }
 
     /**
@@ -153,12 +165,46 @@ public class PumpStreamHandler
         assert in != null;
         assert out != null;
 
-        errorThread = createPump(in, out);
+        errorPump = createPumper(in, out);
+    }
+
+    /**
+     * Creates a stream pumper to copy the given input stream to the given output stream.
+     *
+     * @since 2.6.6
+     */
+    protected StreamPumper createPumper(final InputStream in, final OutputStream out) {
+        assert in != null;
+        assert out != null;
+
+        return createPumper(in, out, false);
+    }
+
+    /**
+     * Creates a stream pumper to copy the given input stream to the
+     * given output stream.
+     *
+     * @param in                    The input stream to copy from.
+     * @param out                   The output stream to copy to.
+     * @param closeWhenExhausted    If true close the inputstream.
+     * @return                      A pumper to be run on the executor.
+     *
+     * @since 2.6.6
+     */
+    protected StreamPumper createPumper(final InputStream in, final OutputStream out, final boolean closeWhenExhausted) {
+        assert in != null;
+        assert out != null;
+
+        return new StreamPumper(in, out, closeWhenExhausted);
     }
 
     /**
      * Creates a stream pumper to copy the given input stream to the given output stream.
+     *
+     * @deprecated Pumpers now run on the {@link PumpExecutor} and this is no longer called; use
+     *             {@link #createPumper(InputStream, OutputStream)}.
      */
+    @Deprecated
     protected Thread createPump(final InputStream in, final OutputStream out) {
         assert in != null;
         assert out != null;
@@ -174,19 +220,24 @@ public class PumpStreamHandler
      * @param out                   The output stream to copy to.
      * @param closeWhenExhausted    If true close the inputstream.
      * @return                      A thread object that does the pumping.
+     *
+     * @deprecated Pumpers now run on the {@link PumpExecutor} and this is no longer called; use
+     *             {@link #createPumper(InputStream, OutputStream, boolean)}.
      */
+    @Deprecated
     protected Thread createPump(final InputStream in, final OutputStream out, final boolean closeWhenExhausted) {
         assert in != null;
         assert out != null;
 
-        final Thread result = new Thread(new StreamPumper(in, out, closeWhenExhausted));
+        final Thread result = new Thread(createPumper(in, out, closeWhenExhausted));
         result.setDaemon(true);
         return result;
     }
 
     /**
      * Creates a stream pumper to copy the given input stream to the
-     * given output stream. Used for standard input.
+     * given output stream. Used for standard input, which is polled so the pumper
+     * does not consume input meant for the shell once the child has exited.
      */
     protected StreamPumper createInputPump(final InputStream in, final OutputStream out, final boolean closeWhenExhausted) {
         assert in != null;
@@ -194,6 +245,7 @@ public class PumpStreamHandler
 
         StreamPumper pumper = new StreamPumper(in, out, closeWhenExhausted);
         pumper.setAutoFlush(true);
+        pumper.setPolling(true);
         return pumper;
     }
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.text.MessageFormat;
+import java.util.Locale;
 
 /**
  * Hijacks the systems standard input, output and error streams on a per-thread basis
@@ -209,6 +210,15 @@ public class StreamJack
         }
     }
 
+    /**
+     * Clear all stream registrations for the current thread, including any inherited from the thread which created it.
+     */
+    public static void clear() {
+        registrations.remove();
+
+        log.trace("Cleared: {}", Thread.currentThread());
+    }
+
     /**
      * Stream registration information.
      */
@@ -259,10 +269,13 @@ public class StreamJack
         restore(StreamSet.system());
     }
 
-    // TODO: Do we need to perform any sync muck here?
-
     /**
-     * Delegates write calls to the currently registered output stream.
+     * Delegates calls to the currently registered output stream.
+     * <p/>
+     * Every method is forwarded whole to the registered stream, which encodes text and locks only itself; nothing is
+     * encoded or synchronized here, so threads writing to different streams never contend on the shared
+     * {@link System#out} instance, and the registration is looked up once per call rather than for each chunk of
+     * encoded output.
      */
     private static class DelegateOutputStream
         extends PrintStream
@@ -296,6 +309,136 @@ public class StreamJack
             get().write(b, off, len);
         }
 
+        @Override
+        public void print(final boolean b) {
+            get().print(b);
+        }
+
+        @Override
+        public void print(final char c) {
+            get().print(c);
+        }
+
+        @Override
+        public void print(final int i) {
+            get().print(i);
+        }
+
+        @Override
+        public void print(final long l) {
+            get().print(l);
+        }
+
+        @Override
+        public void print(final float f) {
+            get().print(f);
+        }
+
+        @Override
+        public void print(final double d) {
+            get().print(d);
+        }
+
+        @Override
+        public void print(final char[] s) {
+            get().print(s);
+        }
+
+        @Override
+        public void print(final String s) {
+            get().print(s);
+        }
+
+        @Override
+        public void print(final Object obj) {
+            get().print(obj);
+        }
+
+        @Override
+        public void println() {
+            get().println();
+        }
+
+        @Override
+        public void println(final boolean x) {
+            get().println(x);
+        }
+
+        @Override
+        public void println(final char x) {
+            get().println(x);
+        }
+
+        @Override
+        public void println(final int x) {
+            get().println(x);
+        }
+
+        @Override
+        public void println(final long x) {
+            get().println(x);
+        }
+
+        @Override
+        public void println(final float x) {
+            get().println(x);
+        }
+
+        @Override
+        public void println(final double x) {
+            get().println(x);
+        }
+
+        @Override
+        public void println(final char[] x) {
+            get().println(x);
+        }
+
+        @Override
+        public void println(final String x) {
+            get().println(x);
+        }
+
+        @Override
+        public void println(final Object x) {
+            get().println(x);
+        }
+
+        @Override
+        public PrintStream format(final String format, final Object... args) {
+            get().format(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(final Locale l, final String format, final Object... args) {
+            get().format(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(final CharSequence csq) {
+            get().append(csq);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(final CharSequence csq, final int start, final int end) {
+            get().append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(final char c) {
+            get().append(c);
+            return this;
+        }
+
+        @Override
+        public boolean checkError() {
+            return get().checkError();
+        }
+
         @Override
         public void flush() {
             get().flush();
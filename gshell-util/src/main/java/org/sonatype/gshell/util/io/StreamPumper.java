@@ -15,6 +15,7 @@
  */
 package org.sonatype.gshell.util.io;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
@@ -24,12 +25,29 @@ import java.io.OutputStream;
 
 /**
  * Copies all data from an input stream to an output stream.
+ * <p/>
+ * By default blocks reading the input until EOF, growing the read buffer while reads keep filling it.  A
+ * {@link #setPolling polling} pumper only reads what is {@link InputStream#available available}, so it never blocks
+ * on (and steals data from) an input that outlives it, such as the console; it backs off between empty polls and is
+ * woken immediately by {@link #stop}.
  *
  * @since 2.0
  */
 public class StreamPumper
     implements Runnable
 {
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Largest size the read buffer grows to.
+     */
+    public static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Longest pause, in milliseconds, between polls of an idle input.
+     */
+    private static final long MAX_BACKOFF = 50;
+
     private final InputStream in;
 
     private final OutputStream out;
@@ -40,11 +58,15 @@ public class StreamPumper
 
     private volatile boolean finished;
 
+    private volatile long count;
+
     private boolean autoFlush;
 
+    private boolean polling;
+
     private Exception exception;
 
-    private int bufferSize = 128;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
 
     private boolean started;
 
@@ -83,37 +105,43 @@ public class StreamPumper
         this.autoFlush = autoFlush;
     }
 
+    /**
+     * Set whether the input should be polled instead of blocked on.
+     *
+     * @param polling If true, only read available data, until stopped or EOF
+     * @since 2.6.6
+     */
+    public synchronized void setPolling(final boolean polling) {
+        if (started) {
+            throw new IllegalStateException("Cannot set polling on a running StreamPumper");
+        }
+
+        this.polling = polling;
+    }
+
     /**
      * Copies data from the input stream to the output stream.
      *
-     * Terminates as soon as the input stream is closed or an error occurs.
+     * Terminates as soon as the input stream is closed, the pumper is stopped or an error occurs.
      */
     public void run() {
+        final boolean polling;
+        final int bufferSize;
         synchronized (this) {
             started = true;
+            polling = this.polling;
+            bufferSize = this.bufferSize;
         }
         finished = false;
-        finish = false;
 
-        final byte[] buf = new byte[bufferSize];
-
-        int length;
         try {
-            do {
-                while (in.available() > 0 && !finish) {
-                    length = in.read(buf);
-                    if (length < 1 ) {
-                        break;
-                    }
-                    out.write(buf, 0, length);
-                    if (autoFlush) {
-                        out.flush();
-                    }
-                }
-                out.flush();
-                Thread.sleep(200);  // Pause to avoid tight loop if external proc is slow
+            if (polling) {
+                poll(bufferSize);
+            }
+            else {
+                pump(bufferSize);
             }
-            while (!finish && closeWhenExhausted);
+            out.flush();
         }
         catch (Exception e) {
             synchronized (this) {
@@ -132,6 +160,56 @@ public class StreamPumper
         }
     }
 
+    private void pump(final int bufferSize) throws IOException {
+        byte[] buf = new byte[bufferSize];
+
+        int length;
+        while (!finish && (length = in.read(buf)) != -1) {
+            out.write(buf, 0, length);
+            count += length;
+
+            // Flush when caught up with the input, so slow producers are not held back by buffering
+            if (autoFlush || in.available() == 0) {
+                out.flush();
+            }
+
+            // Reads which fill the buffer mean a fast producer; read more at once
+            if (length == buf.length && buf.length < MAX_BUFFER_SIZE) {
+                buf = new byte[Math.min(buf.length * 2, MAX_BUFFER_SIZE)];
+            }
+        }
+    }
+
+    private void poll(final int bufferSize) throws IOException, InterruptedException {
+        final byte[] buf = new byte[bufferSize];
+
+        long backoff = 1;
+        while (!finish) {
+            int available = in.available();
+            if (available > 0) {
+                int length = in.read(buf, 0, Math.min(available, buf.length));
+                if (length == -1) {
+                    break;
+                }
+                out.write(buf, 0, length);
+                count += length;
+                if (autoFlush) {
+                    out.flush();
+                }
+                backoff = 1;
+            }
+            else {
+                out.flush();
+                synchronized (this) {
+                    if (!finish) {
+                        wait(backoff);
+                    }
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF);
+            }
+        }
+    }
+
     /**
      * Tells whether the end of the stream has been reached.
      *
@@ -141,6 +219,15 @@ public class StreamPumper
         return finished;
     }
 
+    /**
+     * Get the number of bytes copied so far.
+     *
+     * @since 2.6.6
+     */
+    public long getCount() {
+        return count;
+    }
+
     /**
      * This method blocks until the stream pumper finishes.
      *
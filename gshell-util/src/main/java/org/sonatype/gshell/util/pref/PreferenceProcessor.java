@@ -21,14 +21,21 @@ import org.sonatype.gshell.util.converter.Converters;
 import org.sonatype.gshell.util.setter.Setter;
 import org.sonatype.gshell.util.setter.SetterFactory;
 
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Processes an object for preference annotations.
+ * <p/>
+ * The annotated members of each class are discovered once and cached; adding a bean only binds the cached members to
+ * the instance.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.0
@@ -37,6 +44,12 @@ public class PreferenceProcessor
 {
     private static final Logger log = Log.getLogger(PreferenceProcessor.class);
 
+    /**
+     * Annotated members by class; guarded by itself.  Classes are weakly referenced, and as the members refer back to
+     * their class, they are softly referenced.
+     */
+    private static final Map<Class<?>, Reference<List<Member>>> members = new WeakHashMap<Class<?>, Reference<List<Member>>>();
+
     private final List<PreferenceDescriptor> descriptors = new ArrayList<PreferenceDescriptor>();
 
     private String basePath;
@@ -67,30 +80,69 @@ public class PreferenceProcessor
     private void discoverDescriptors(final Object bean) {
         assert bean != null;
 
+        for (Member member : getMembers(bean.getClass())) {
+            PreferenceDescriptor desc = new PreferenceDescriptor(member.base, member.spec, member.accessor.bind(bean));
+            desc.setBasePath(getBasePath());
+            descriptors.add(desc);
+        }
+    }
+
+    private static List<Member> getMembers(final Class<?> type) {
+        synchronized (members) {
+            Reference<List<Member>> ref = members.get(type);
+            List<Member> result = ref != null ? ref.get() : null;
+            if (result == null) {
+                result = discoverMembers(type);
+                members.put(type, new SoftReference<List<Member>>(result));
+            }
+            return result;
+        }
+    }
+
+    private static List<Member> discoverMembers(final Class<?> root) {
+        List<Member> result = new ArrayList<Member>();
+
         // Recursively process all the methods/fields (@Inherited won't work here)
-        for (Class<?> type = bean.getClass(); type != null; type = type.getSuperclass()) {
+        for (Class<?> type = root; type != null; type = type.getSuperclass()) {
             Preferences base = type.getAnnotation(Preferences.class);
 
             for (Method method : type.getDeclaredMethods()) {
-                discoverDescriptor(base, bean, method);
+                discoverMember(result, base, method);
             }
             for (Field field : type.getDeclaredFields()) {
-                discoverDescriptor(base, bean, field);
+                discoverMember(result, base, field);
             }
         }
+
+        return result;
     }
 
-    private void discoverDescriptor(final Preferences base, final Object bean, final AnnotatedElement element) {
+    private static void discoverMember(final List<Member> result, final Preferences base, final AnnotatedElement element) {
         // base could be null
-        assert bean != null;
         assert element != null;
 
         Preference pref = element.getAnnotation(Preference.class);
         if (pref != null) {
             log.trace("Discovered preference for: {}", element);
-            PreferenceDescriptor desc = new PreferenceDescriptor(base, pref, SetterFactory.create(element, bean));
-            desc.setBasePath(getBasePath());
-            descriptors.add(desc);
+            result.add(new Member(base, pref, element));
+        }
+    }
+
+    /**
+     * An element annotated with {@link Preference}.
+     */
+    private static class Member
+    {
+        private final Preferences base;
+
+        private final Preference spec;
+
+        private final SetterFactory.Accessor accessor;
+
+        private Member(final Preferences base, final Preference spec, final AnnotatedElement element) {
+            this.base = base;
+            this.spec = spec;
+            this.accessor = SetterFactory.accessor(element);
         }
     }
 
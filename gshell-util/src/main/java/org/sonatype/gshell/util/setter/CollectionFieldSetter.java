@@ -33,12 +33,19 @@ import java.util.Set;
 public class CollectionFieldSetter
     extends FieldSetter
 {
+    private final Class type;
+
     public CollectionFieldSetter(final Object bean, final Field field) {
-        super(field, bean);
+        this(bean, field, elementType(field));
+    }
 
-        if (!Collection.class.isAssignableFrom(field.getType())) {
-            throw new IllegalArgumentException(Messages.ILLEGAL_FIELD_SIGNATURE.format(field.getType()));
-        }
+    /**
+     * @since 2.6.6
+     */
+    public CollectionFieldSetter(final Object bean, final Field field, final Class type) {
+        super(field, bean);
+        assert type != null;
+        this.type = type;
     }
 
     public boolean isMultiValued() {
@@ -46,6 +53,21 @@ public class CollectionFieldSetter
     }
 
     public Class getType() {
+        return type;
+    }
+
+    /**
+     * Returns the element type of the given collection field.
+     *
+     * @since 2.6.6
+     */
+    static Class elementType(final Field field) {
+        assert field != null;
+
+        if (!Collection.class.isAssignableFrom(field.getType())) {
+            throw new IllegalArgumentException(Messages.ILLEGAL_FIELD_SIGNATURE.format(field.getType()));
+        }
+
         Type type = field.getGenericType();
 
         if (type instanceof ParameterizedType) {
@@ -29,15 +29,35 @@ public class MethodSetter
 {
     private final Method method;
 
+    private final Class type;
+
     public MethodSetter(final Method method, final Object bean) {
+        this(method, bean, parameterType(method));
+    }
+
+    /**
+     * @since 2.6.6
+     */
+    public MethodSetter(final Method method, final Object bean, final Class type) {
         super(method, bean);
+        this.method = method;
+        assert type != null;
+        this.type = type;
+    }
 
+    /**
+     * Returns the type of the single parameter of the given method.
+     *
+     * @since 2.6.6
+     */
+    static Class parameterType(final Method method) {
         assert method != null;
-        this.method = method;
 
-        if (method.getParameterTypes().length != 1) {
+        Class[] types = method.getParameterTypes();
+        if (types.length != 1) {
             throw new IllegalArgumentException(Messages.ILLEGAL_METHOD_SIGNATURE.format(method));
         }
+        return types[0];
     }
 
     public String getName() {
@@ -45,7 +65,7 @@ public class MethodSetter
     }
 
     public Class getType() {
-        return method.getParameterTypes()[0];
+        return type;
     }
 
     public boolean isMultiValued() {
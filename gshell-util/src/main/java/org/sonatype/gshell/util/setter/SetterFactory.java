@@ -15,6 +15,7 @@
  */
 package org.sonatype.gshell.util.setter;
 
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -22,16 +23,70 @@ import java.util.Collection;
 
 /**
  * Creates {@link Setter} instances.
+ * <p/>
+ * An {@link Accessor} resolves the accessibility and value type of an element once, so binding a setter to a bean is
+ * only an allocation.  Nothing is cached here; callers binding the same element repeatedly keep the accessor with the
+ * rest of their metadata for the declaring class, so it is released along with that class.  Set the {@link #TYPE}
+ * system property to <tt>reflective</tt> to resolve them on every bind instead.
  *
  * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
  * @since 2.0
  */
 public class SetterFactory
 {
+    /**
+     * @since 2.6.6
+     */
+    public static final String TYPE = SetterFactory.class.getName() + ".type";
+
+    /**
+     * @since 2.6.6
+     */
+    public static enum Type
+    {
+        REFLECTIVE,
+        CACHED
+    }
+
+    private static volatile Type type;
+
+    /**
+     * @since 2.6.6
+     */
+    public static Type getType() {
+        Type result = type;
+        if (result == null) {
+            String value = System.getProperty(TYPE, Type.CACHED.name());
+            try {
+                result = Type.valueOf(value.toUpperCase());
+            }
+            catch (IllegalArgumentException e) {
+                result = Type.CACHED;
+            }
+            type = result;
+        }
+        return result;
+    }
+
+    /**
+     * @since 2.6.6
+     */
+    public static void setType(final Type type) {
+        SetterFactory.type = type;
+    }
+
     public static Setter create(final AnnotatedElement element, final Object bean) {
         assert element != null;
         assert bean != null;
 
+        if (getType() == Type.CACHED) {
+            return accessor(element).bind(bean);
+        }
+
+        return reflective(element, bean);
+    }
+
+    private static Setter reflective(final AnnotatedElement element, final Object bean) {
         if (element instanceof Field) {
             Field field = (Field) element;
 
@@ -51,4 +106,75 @@ public class SetterFactory
             throw new Error();
         }
     }
+
+    /**
+     * Resolve the given element, for binding setters of it to any number of beans.
+     *
+     * @since 2.6.6
+     */
+    public static Accessor accessor(final AnnotatedElement element) {
+        assert element != null;
+        return new Accessor(element);
+    }
+
+    /**
+     * Resolved details of an element, shared by all of its setters.
+     *
+     * @since 2.6.6
+     */
+    public static class Accessor
+    {
+        private final AnnotatedElement element;
+
+        private final Class type;
+
+        private final boolean collection;
+
+        private Accessor(final AnnotatedElement element) {
+            if (element instanceof Field) {
+                Field field = (Field) element;
+                collection = Collection.class.isAssignableFrom(field.getType());
+                type = collection ? CollectionFieldSetter.elementType(field) : field.getType();
+            }
+            else if (element instanceof Method) {
+                collection = false;
+                type = MethodSetter.parameterType((Method) element);
+            }
+            else {
+                throw new Error();
+            }
+
+            try {
+                ((AccessibleObject) element).setAccessible(true);
+            }
+            catch (SecurityException ignore) {
+                // setters will try again, and fail only if the element really is not accessible
+            }
+
+            this.element = element;
+        }
+
+        public AnnotatedElement getElement() {
+            return element;
+        }
+
+        /**
+         * Create a setter of the element for the given bean; resolves the element again if {@link SetterFactory#TYPE}
+         * is <tt>reflective</tt>.
+         */
+        public Setter bind(final Object bean) {
+            assert bean != null;
+
+            if (getType() != Type.CACHED) {
+                return reflective(element, bean);
+            }
+            if (element instanceof Method) {
+                return new MethodSetter((Method) element, bean, type);
+            }
+            if (collection) {
+                return new CollectionFieldSetter(bean, (Field) element, type);
+            }
+            return new FieldSetter((Field) element, bean);
+        }
+    }
 }
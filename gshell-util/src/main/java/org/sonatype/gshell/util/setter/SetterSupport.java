@@ -53,8 +53,10 @@ public abstract class SetterSupport
     }
 
     public void set(final Object value) {
-        log.trace("Setting '{}' on: {}, using: {}", new Object[] { value, bean, accessible });
-        
+        if (log.isTraceEnabled()) {
+            log.trace("Setting '{}' on: {}, using: {}", new Object[] { value, bean, accessible });
+        }
+
         try {
             doSet(value);
         }
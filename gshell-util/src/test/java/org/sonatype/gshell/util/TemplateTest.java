@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link Template} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class TemplateTest
+{
+    private final Map<String,Object> vars = new HashMap<String,Object>();
+
+    private final Template.Resolver resolver = new Template.Resolver()
+    {
+        public Object resolve(final String name) {
+            return vars.get(name);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        vars.put("a", "A");
+        vars.put("b", "B");
+        vars.put("ref", "<${a}>");
+        vars.put("self", "${self}");
+    }
+
+    private String render(final String input) throws Exception {
+        return Template.compile(input).render(resolver);
+    }
+
+    @Test
+    public void testLiteral() throws Exception {
+        Template template = Template.compile("just text");
+        assertTrue(template.isConstant());
+        assertEquals("just text", template.render(resolver));
+        assertEquals("", render(""));
+    }
+
+    @Test
+    public void testVariables() throws Exception {
+        assertFalse(Template.compile("${a}").isConstant());
+        assertEquals("A", render("${a}"));
+        assertEquals("xAyBz", render("x${a}y${b}z"));
+        assertEquals("AA", render("${a}${a}"));
+    }
+
+    @Test
+    public void testUnresolvedIsLeftAsIs() throws Exception {
+        assertEquals("${missing} A", render("${missing} ${a}"));
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        assertEquals("${", render("${"));
+        assertEquals("${}", render("${}"));
+        assertEquals("x${a", render("x${a"));
+        assertEquals("$a {b}", render("$a {b}"));
+    }
+
+    @Test
+    public void testDefault() throws Exception {
+        assertEquals("A", render("${a:-default}"));
+        assertEquals("default", render("${missing:-default}"));
+        assertEquals("", render("${missing:-}"));
+        assertEquals("B", render("${missing:-${b}}"));
+        assertEquals("last", render("${missing:-${other:-last}}"));
+    }
+
+    @Test
+    public void testEscape() throws Exception {
+        assertEquals("${a}", render("\\${a}"));
+        assertEquals("a\\b", render("a\\b"));
+        assertEquals("A ${b}", render("${a} \\${b}"));
+        assertEquals("${b}", render("${missing:-\\${b}}"));
+    }
+
+    @Test
+    public void testNestedValues() throws Exception {
+        assertEquals("<A>", render("${ref}"));
+
+        // Self references stop expanding
+        assertEquals("${self}", render("${self}"));
+    }
+
+    @Test
+    public void testManyTokens() throws Exception {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            input.append("${a}-");
+            expected.append("A-");
+        }
+        assertEquals(expected.toString(), render(input.toString()));
+    }
+}
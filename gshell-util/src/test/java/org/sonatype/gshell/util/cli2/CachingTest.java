@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.cli2;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that cached binding metadata is bound to the right instances.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class CachingTest
+{
+    private static class Bean
+    {
+        @Option(name = "n", longName = "name")
+        String name;
+
+        @Option(name = "v", longName = "value")
+        List<String> values;
+
+        @Argument
+        String arg1;
+    }
+
+    private static class Other
+    {
+        @Option(name = "x")
+        boolean x;
+    }
+
+    @Test
+    public void testInstancesAreIndependent() throws Exception {
+        Bean bean1 = new Bean();
+        CliProcessor clp1 = new CliProcessor();
+        clp1.addBean(bean1);
+
+        Bean bean2 = new Bean();
+        CliProcessor clp2 = new CliProcessor();
+        clp2.addBean(bean2);
+
+        clp1.process("-n", "a", "-v", "1", "-v", "2", "foo");
+        clp2.process("-v", "3");
+
+        assertEquals("a", bean1.name);
+        assertEquals(2, bean1.values.size());
+        assertEquals("foo", bean1.arg1);
+
+        assertNull(bean2.name);
+        assertEquals(1, bean2.values.size());
+        assertEquals("3", bean2.values.get(0));
+        assertNull(bean2.arg1);
+    }
+
+    @Test
+    public void testBeanCombinations() throws Exception {
+        Bean bean1 = new Bean();
+        CliProcessor clp1 = new CliProcessor();
+        clp1.addBean(bean1);
+        clp1.process("-n", "a");
+
+        Bean bean2 = new Bean();
+        Other other = new Other();
+        CliProcessor clp2 = new CliProcessor();
+        clp2.addBean(bean2);
+        clp2.addBean(other);
+        clp2.process("-x", "-n", "b");
+
+        assertEquals("a", bean1.name);
+        assertEquals("b", bean2.name);
+        assertTrue(other.x);
+
+        // Options for the single bean must not include those of the other
+        CliProcessor clp3 = new CliProcessor();
+        clp3.addBean(new Bean());
+        try {
+            clp3.process("-x");
+            fail();
+        }
+        catch (ProcessingException expected) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.cli2;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests processing of arguments which are not strings.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class TypedTest
+    extends CliProcessorTestSupport
+{
+    private static class Bean
+    {
+        @Option(name = "f")
+        File file;
+
+        @Option(name = "n")
+        int number;
+
+        @Option(name = "v")
+        List<Integer> values;
+
+        @Argument
+        Object arg;
+    }
+
+    private Bean bean;
+
+    @Override
+    protected Object createBean() {
+        return bean = new Bean();
+    }
+
+    @Test
+    public void testInstanceIsSetAsIs() throws Exception {
+        File file = new File("foo");
+        Object arg = new Object();
+        clp.process("-f", file, arg);
+
+        assertSame(file, bean.file);
+        assertSame(arg, bean.arg);
+    }
+
+    @Test
+    public void testPrimitiveFromWrapper() throws Exception {
+        clp.process("-n", 42);
+        assertEquals(42, bean.number);
+    }
+
+    @Test
+    public void testCollectionToMultiValued() throws Exception {
+        clp.process("-v", Arrays.asList(1, 2), "-v", "3");
+        assertEquals(Arrays.asList(1, 2, 3), bean.values);
+    }
+
+    @Test
+    public void testNonMatchingTypeIsConverted() throws Exception {
+        clp.process("-n", new StringBuilder("7"));
+        assertEquals(7, bean.number);
+    }
+
+    @Test
+    public void testStringsStillWork() throws Exception {
+        clp.process(new Object[] { "-f", "bar", "-n", "1" });
+        assertEquals(new File("bar"), bean.file);
+        assertEquals(1, bean.number);
+    }
+}
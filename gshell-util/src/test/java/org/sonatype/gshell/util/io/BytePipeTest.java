@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the {@link BytePipe} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class BytePipeTest
+{
+    @Test
+    public void testReadAfterWriterClosed() throws Exception {
+        BytePipe pipe = new BytePipe(8);
+        pipe.getOutputStream().write("abc".getBytes());
+        pipe.closeWriter();
+
+        InputStream in = pipe.getInputStream();
+        assertEquals('a', in.read());
+        byte[] buff = new byte[8];
+        assertEquals(2, in.read(buff, 0, buff.length));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testWrapsAroundSmallBuffer() throws Exception {
+        final byte[] data = new byte[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        final BytePipe pipe = new BytePipe(7);
+        Thread writer = new Thread()
+        {
+            @Override
+            public void run() {
+                try {
+                    OutputStream out = pipe.getOutputStream();
+                    out.write(data);
+                    out.close();
+                }
+                catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        writer.start();
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        InputStream in = pipe.getInputStream();
+        byte[] buff = new byte[5];
+        int n;
+        while ((n = in.read(buff)) != -1) {
+            result.write(buff, 0, n);
+        }
+        writer.join();
+
+        assertArrayEquals(data, result.toByteArray());
+    }
+
+    @Test
+    public void testWriteFailsAfterReaderClosed() throws Exception {
+        BytePipe pipe = new BytePipe(8);
+        pipe.getInputStream().close();
+
+        try {
+            pipe.getOutputStream().write(1);
+            fail();
+        }
+        catch (IOException expected) {
+            // ignore
+        }
+    }
+}
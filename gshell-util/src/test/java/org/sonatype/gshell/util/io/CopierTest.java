@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link Copier} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class CopierTest
+{
+    private byte[] data;
+
+    private File source;
+
+    private File target;
+
+    @Before
+    public void setUp() throws Exception {
+        data = new byte[200 * 1024 + 17];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        source = File.createTempFile("copier", ".in");
+        target = File.createTempFile("copier", ".out");
+
+        OutputStream out = new FileOutputStream(source);
+        try {
+            out.write(data);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        assertTrue(source.delete());
+        assertTrue(target.delete());
+    }
+
+    private byte[] read(final File file) throws IOException {
+        ByteArrayOutputStream buff = new ByteArrayOutputStream();
+        InputStream in = new FileInputStream(file);
+        try {
+            Copier.copy(in, buff, 1024);
+        }
+        finally {
+            in.close();
+        }
+        return buff.toByteArray();
+    }
+
+    @Test
+    public void testFileToFile() throws Exception {
+        InputStream in = new FileInputStream(source);
+        OutputStream out = new FileOutputStream(target);
+        try {
+            assertEquals(data.length, Copier.transfer(in, out));
+            assertEquals(-1, in.read());
+
+            // Further writes follow the transferred bytes
+            out.write(1);
+        }
+        finally {
+            Closer.close(in, out);
+        }
+
+        byte[] result = read(target);
+        assertEquals(data.length + 1, result.length);
+        assertEquals(1, result[data.length]);
+    }
+
+    @Test
+    public void testFileRemainderToStream() throws Exception {
+        InputStream in = new FileInputStream(source);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            assertEquals(10, in.skip(10));
+            assertEquals(data.length - 10, Copier.transfer(in, out));
+        }
+        finally {
+            Closer.close(in);
+        }
+
+        byte[] expected = new byte[data.length - 10];
+        System.arraycopy(data, 10, expected, 0, expected.length);
+        assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    public void testStreamToFile() throws Exception {
+        OutputStream out = new FileOutputStream(target);
+        try {
+            assertEquals(data.length, Copier.transfer(new ByteArrayInputStream(data), out));
+        }
+        finally {
+            Closer.close(out);
+        }
+
+        assertArrayEquals(data, read(target));
+    }
+
+    @Test
+    public void testStreamToStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(data.length, Copier.transfer(new ByteArrayInputStream(data), out));
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    public void testChannelToChannel() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(data.length,
+            Copier.transfer(Channels.newChannel(new ByteArrayInputStream(data)), Channels.newChannel(out)));
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    public void testRate() {
+        assertEquals(2000, Copier.rate(1000, 500 * 1000 * 1000));
+        assertEquals(0, Copier.rate(1000, 0));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.io;
+
+import jline.UnsupportedTerminal;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the {@link InputPipe} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class InputPipeTest
+{
+    private int interrupts;
+
+    private InputPipe createPipe(final InputStream input) {
+        StreamSet streams = new StreamSet(input, new PrintStream(new ByteArrayOutputStream()));
+        InputPipe pipe = new InputPipe(streams, new UnsupportedTerminal(), new InputPipe.InterruptHandler()
+        {
+            public boolean interrupt() throws Exception {
+                interrupts++;
+                return true;
+            }
+
+            public boolean stop() throws Exception {
+                return false;
+            }
+        });
+        pipe.setDaemon(true);
+        pipe.start();
+        return pipe;
+    }
+
+    @Test
+    public void testBulkRead() throws Exception {
+        byte[] data = new byte[20000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + i % 26);
+        }
+
+        // Input never reaches EOF, as with a console
+        BytePipe source = new BytePipe(data.length);
+        source.getOutputStream().write(data);
+
+        InputStream in = createPipe(source.getInputStream()).getInputStream();
+        byte[] result = new byte[data.length];
+        int count = 0;
+        while (count < result.length) {
+            int n = in.read(result, count, result.length - count);
+            assertTrue(n > 0);
+            count += n;
+        }
+
+        assertArrayEquals(data, result);
+    }
+
+    @Test
+    public void testInterrupt() throws Exception {
+        BytePipe source = new BytePipe();
+        source.getOutputStream().write(new byte[] { 'a', 'b', 3, 'c' });
+
+        InputStream in = createPipe(source.getInputStream()).getInputStream();
+        byte[] buff = new byte[16];
+        try {
+            while (true) {
+                in.read(buff, 0, buff.length);
+            }
+        }
+        catch (InterruptedIOException expected) {
+            // ignore
+        }
+        assertEquals(1, interrupts);
+    }
+}
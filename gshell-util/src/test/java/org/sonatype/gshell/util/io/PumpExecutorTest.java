@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link PumpExecutor} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class PumpExecutorTest
+{
+    @Test
+    public void testThreadsAreReused() throws Exception {
+        PumpExecutor executor = new PumpExecutor(4);
+
+        for (int i = 0; i < 100; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            executor.execute(new StreamPumper(new ByteArrayInputStream(new byte[10]), out)).get();
+            assertEquals(10, out.size());
+        }
+
+        assertEquals(100, executor.getCompleted());
+        assertEquals(1000, executor.getBytes());
+        assertEquals(0, executor.getActive());
+        assertTrue(executor.getPoolSize() <= 4);
+        assertEquals(0, executor.getOverflow());
+    }
+
+    @Test
+    public void testBusyPoolDoesNotQueue() throws Exception {
+        PumpExecutor executor = new PumpExecutor(1);
+
+        // The first pumper holds the only pooled thread until its pipe is closed
+        BytePipe pipe = new BytePipe();
+        StreamPumper blocked = new StreamPumper(pipe.getInputStream(), new ByteArrayOutputStream());
+        executor.execute(blocked);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        executor.execute(new StreamPumper(new ByteArrayInputStream(new byte[5]), out)).get();
+        assertEquals(5, out.size());
+        assertEquals(1, executor.getOverflow());
+
+        pipe.closeWriter();
+        blocked.waitFor();
+        assertTrue(blocked.isFinished());
+    }
+}
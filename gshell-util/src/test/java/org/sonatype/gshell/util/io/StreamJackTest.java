@@ -223,4 +223,25 @@ public class StreamJackTest
 
         assertEquals("hijacked!!", msg);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPrintMethodsForwarded() throws Exception {
+        installOut();
+
+        try {
+            System.out.print(1);
+            System.out.print('a');
+            System.out.print(true);
+            System.out.printf("[%s]", "x").append('-').append("yz", 1, 2);
+            System.out.write('!');
+            System.out.println();
+        }
+        finally {
+            deregisterAndUninstall();
+        }
+
+        String msg = new String(buff.toByteArray());
+
+        assertEquals("1atrue[x]-z!" + System.getProperty("line.separator"), msg);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link StreamPumper} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class StreamPumperTest
+{
+    @Test
+    public void testPumpsUntilEof() throws Exception {
+        byte[] data = new byte[StreamPumper.MAX_BUFFER_SIZE * 3 + 17];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamPumper pumper = new StreamPumper(new ByteArrayInputStream(data), out);
+        pumper.run();
+
+        assertTrue(pumper.isFinished());
+        assertNull(pumper.getException());
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    public void testPumpsFromPipeWithoutPolling() throws Exception {
+        BytePipe pipe = new BytePipe(16);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamPumper pumper = new StreamPumper(pipe.getInputStream(), out);
+        Thread thread = new Thread(pumper);
+        thread.start();
+
+        pipe.getOutputStream().write("hello".getBytes());
+        pipe.closeWriter();
+        pumper.waitFor();
+
+        assertEquals("hello", out.toString());
+    }
+
+    @Test
+    public void testPollingStopsPromptly() throws Exception {
+        BytePipe pipe = new BytePipe(16);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamPumper pumper = new StreamPumper(pipe.getInputStream(), out, true);
+        pumper.setPolling(true);
+        Thread thread = new Thread(pumper);
+        thread.start();
+
+        pipe.getOutputStream().write("abc".getBytes());
+        while (out.size() < 3) {
+            Thread.sleep(1);
+        }
+
+        pumper.stop();
+        thread.join(1000);
+
+        assertTrue(pumper.isFinished());
+        assertEquals("abc", out.toString());
+
+        // Nothing more was consumed from the input once stopped
+        pipe.getOutputStream().write('d');
+        assertEquals(1, pipe.available());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPollingCannotChangeOnceStarted() throws Exception {
+        StreamPumper pumper = new StreamPumper(new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream());
+        pumper.run();
+        pumper.setPolling(true);
+    }
+}
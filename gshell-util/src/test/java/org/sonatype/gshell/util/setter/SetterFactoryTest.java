@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2009-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sonatype.gshell.util.setter;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link SetterFactory} class.
+ *
+ * @author <a href="mailto:jason@planet57.com">Jason Dillon</a>
+ */
+public class SetterFactoryTest
+{
+    private static class Bean
+    {
+        private String name;
+
+        private List<Integer> values;
+
+        private int size;
+
+        private void setSize(final int size) {
+            this.size = size;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        SetterFactory.setType(null);
+    }
+
+    private void assertSetters() throws Exception {
+        Bean bean = new Bean();
+
+        Setter setter = SetterFactory.create(Bean.class.getDeclaredField("name"), bean);
+        assertEquals(String.class, setter.getType());
+        assertFalse(setter.isMultiValued());
+        setter.set("a");
+        assertEquals("a", bean.name);
+
+        setter = SetterFactory.create(Bean.class.getDeclaredField("values"), bean);
+        assertEquals(Integer.class, setter.getType());
+        assertTrue(setter.isMultiValued());
+        setter.set(1);
+        setter.set(2);
+        assertEquals(2, bean.values.size());
+
+        setter = SetterFactory.create(Bean.class.getDeclaredMethod("setSize", int.class), bean);
+        assertEquals(int.class, setter.getType());
+        setter.set(3);
+        assertEquals(3, bean.size);
+    }
+
+    @Test
+    public void testReflective() throws Exception {
+        SetterFactory.setType(SetterFactory.Type.REFLECTIVE);
+        assertSetters();
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        SetterFactory.setType(SetterFactory.Type.CACHED);
+        assertSetters();
+    }
+
+    @Test
+    public void testAccessorBindsToEachBean() throws Exception {
+        SetterFactory.Accessor accessor = SetterFactory.accessor(Bean.class.getDeclaredField("values"));
+
+        Bean bean1 = new Bean();
+        Bean bean2 = new Bean();
+        accessor.bind(bean1).set(1);
+        accessor.bind(bean2).set(2);
+        accessor.bind(bean2).set(3);
+
+        assertEquals(1, bean1.values.size());
+        assertEquals(2, bean2.values.size());
+    }
+
+    @Test
+    public void testAccessorFollowsType() throws Exception {
+        SetterFactory.Accessor accessor = SetterFactory.accessor(Bean.class.getDeclaredMethod("setSize", int.class));
+
+        SetterFactory.setType(SetterFactory.Type.REFLECTIVE);
+        Bean bean = new Bean();
+        accessor.bind(bean).set(4);
+        assertEquals(4, bean.size);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCachedIllegalMethod() throws Exception {
+        SetterFactory.setType(SetterFactory.Type.CACHED);
+        SetterFactory.create(Object.class.getDeclaredMethod("hashCode"), new Bean());
+    }
+}